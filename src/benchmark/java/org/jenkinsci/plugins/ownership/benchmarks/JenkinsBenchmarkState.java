@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.benchmarks;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import hudson.model.User;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Base state for benchmarks, which require a running Jenkins instance.
+ * The instance is being started once per trial.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+public abstract class JenkinsBenchmarkState {
+    
+    protected JenkinsRule j;
+    
+    @Setup(Level.Trial)
+    public final void startJenkins() throws Throwable {
+        j = new JenkinsRule();
+        // Initializes the test description, the statement itself is not being used
+        j.apply(new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                // Do nothing
+            }
+        }, Description.createTestDescription(getClass(), "benchmark"));
+        j.before();
+        setUp();
+    }
+    
+    @TearDown(Level.Trial)
+    public final void stopJenkins() throws Throwable {
+        j.after();
+    }
+    
+    /**
+     * Prepares the benchmark data.
+     * @throws Exception Setup error
+     */
+    protected abstract void setUp() throws Exception;
+    
+    /**
+     * Creates users with "user[0..count-1]" IDs.
+     * @param count Number of users
+     * @return IDs of created users
+     * @throws Exception User creation error
+     */
+    protected static List<String> createUsers(int count) throws Exception {
+        final List<String> res = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            final String userId = "user" + i;
+            User.get(userId, true, null).setFullName("Test User " + i);
+            res.add(userId);
+        }
+        return res;
+    }
+    
+    /**
+     * Creates a description with the specified number of co-owners.
+     * Co-owners are being taken from the tail of the list.
+     * @param ownerId Primary owner
+     * @param users All users
+     * @param coOwners Number of co-owners
+     * @return Ownership description
+     */
+    protected static OwnershipDescription createDescription(String ownerId, List<String> users, int coOwners) {
+        final int from = Math.max(0, users.size() - coOwners);
+        return new OwnershipDescription(true, ownerId, users.subList(from, users.size()));
+    }
+}
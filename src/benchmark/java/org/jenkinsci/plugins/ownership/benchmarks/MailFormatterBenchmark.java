@@ -0,0 +1,70 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.benchmarks;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+import org.jenkinsci.plugins.ownership.util.mail.MailFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@link MailFormatter}.
+ * The benchmark does not require a Jenkins instance.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+public class MailFormatterBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class FormatterState {
+        
+        @Param({"1", "10", "100"})
+        public int recipients;
+        
+        final MailFormatter formatter = new MailFormatter();
+        List<String> to;
+        List<String> cc;
+        
+        @Setup
+        public void setUp() {
+            to = new ArrayList<String>(recipients);
+            cc = new ArrayList<String>(recipients);
+            for (int i = 0; i < recipients; i++) {
+                to.add("owner" + i + "@example.com");
+                cc.add("coowner" + i + "@example.com");
+            }
+        }
+    }
+    
+    @Benchmark
+    public String createMailToString(FormatterState state) throws UnsupportedEncodingException {
+        return state.formatter.createMailToString(state.to, state.cc, null, 
+                "[Jenkins] - Benchmark subject", "Benchmark body \n with multiple \r\n lines");
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.benchmarks;
+
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.security.jobrestrictions.OwnersListJobRestriction;
+import com.synopsys.arc.jenkins.plugins.ownership.util.ui.UserSelector;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@link OwnersListJobRestriction}.
+ * The restriction does not contain owners of the job, 
+ * so all co-owners are being checked.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+public class OwnersListJobRestrictionBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class RestrictionState extends JenkinsBenchmarkState {
+        
+        @Param({"1", "10", "100"})
+        public int restrictionUsers;
+        
+        @Param({"0", "10", "100"})
+        public int coOwners;
+        
+        OwnersListJobRestriction restriction;
+        FreeStyleBuild build;
+
+        @Override
+        protected void setUp() throws Exception {
+            final List<String> owners = createUsers(coOwners + 1);
+            final FreeStyleProject project = j.createFreeStyleProject();
+            JobOwnerHelper.setOwnership(project, createDescription(owners.get(0), owners, coOwners));
+            build = j.buildAndAssertSuccess(project);
+            
+            final List<UserSelector> selectors = new ArrayList<UserSelector>(restrictionUsers);
+            for (int i = 0; i < restrictionUsers; i++) {
+                selectors.add(new UserSelector("restricted" + i));
+            }
+            restriction = new OwnersListJobRestriction(selectors, true);
+        }
+    }
+    
+    @Benchmark
+    public boolean canTake(RestrictionState state) {
+        return state.restriction.canTake(state.build);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.benchmarks;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import hudson.model.User;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@link OwnershipDescription#isOwner(hudson.model.User, boolean)}.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+public class OwnershipDescriptionBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class DescriptionState extends JenkinsBenchmarkState {
+        
+        @Param({"0", "10", "100", "1000"})
+        public int coOwners;
+        
+        OwnershipDescription description;
+        User owner;
+        User coOwner;
+        User stranger;
+
+        @Override
+        protected void setUp() throws Exception {
+            final List<String> users = createUsers(coOwners + 2);
+            description = OwnershipDescription.intern(
+                    createDescription(users.get(0), users, coOwners));
+            owner = User.get(users.get(0));
+            coOwner = User.get(users.get(users.size() - 1));
+            stranger = User.get(users.get(1));
+        }
+    }
+    
+    @Benchmark
+    public boolean isOwnerPrimary(DescriptionState state) {
+        return state.description.isOwner(state.owner, true);
+    }
+    
+    @Benchmark
+    public boolean isOwnerCoOwner(DescriptionState state) {
+        return state.description.isOwner(state.coOwner, true);
+    }
+    
+    @Benchmark
+    public boolean isOwnerStranger(DescriptionState state) {
+        return state.description.isOwner(state.stranger, true);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.benchmarks;
+
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.OwnershipJobFilter;
+import hudson.model.FreeStyleProject;
+import hudson.model.TopLevelItem;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@link OwnershipJobFilter} over synthetic job lists.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+public class OwnershipJobFilterBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class FilterState extends JenkinsBenchmarkState {
+        
+        @Param({"100", "1000"})
+        public int jobs;
+        
+        @Param({"10", "100"})
+        public int users;
+        
+        @Param({"0", "5"})
+        public int coOwners;
+        
+        List<TopLevelItem> items;
+        OwnershipJobFilter ownersFilter;
+        OwnershipJobFilter coOwnersFilter;
+
+        @Override
+        protected void setUp() throws Exception {
+            final List<String> userIds = createUsers(users);
+            for (int i = 0; i < jobs; i++) {
+                FreeStyleProject project = j.createFreeStyleProject("job" + i);
+                JobOwnerHelper.setOwnership(project, 
+                        createDescription(userIds.get(i % users), userIds, coOwners));
+            }
+            items = new ArrayList<TopLevelItem>(j.jenkins.getItems());
+            ownersFilter = new OwnershipJobFilter(userIds.get(0), false);
+            coOwnersFilter = new OwnershipJobFilter(userIds.get(users - 1), true);
+        }
+    }
+    
+    @Benchmark
+    public List<TopLevelItem> filterOwners(FilterState state) {
+        return state.ownersFilter.filter(state.items, state.items, null);
+    }
+    
+    @Benchmark
+    public List<TopLevelItem> filterCoOwners(FilterState state) {
+        return state.coOwnersFilter.filter(state.items, state.items, null);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.benchmarks;
+
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.security.rolestrategy.CoOwnerRoleMacro;
+import com.synopsys.arc.jenkins.plugins.ownership.security.rolestrategy.OwnerRoleMacro;
+import com.synopsys.arc.jenkins.plugins.ownership.security.rolestrategy.OwnershipDecisionCache;
+import com.synopsys.arc.jenkins.plugins.rolestrategy.RoleType;
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks ownership-based Role Strategy macros.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+public class RoleMacroBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class MacroState extends JenkinsBenchmarkState {
+        
+        @Param({"0", "10", "100"})
+        public int coOwners;
+        
+        final OwnerRoleMacro ownerMacro = new OwnerRoleMacro();
+        final CoOwnerRoleMacro coOwnerMacro = new CoOwnerRoleMacro();
+        FreeStyleProject project;
+        String ownerId;
+        String lastCoOwnerId;
+
+        @Override
+        protected void setUp() throws Exception {
+            final List<String> users = createUsers(coOwners + 1);
+            project = j.createFreeStyleProject();
+            ownerId = users.get(0);
+            lastCoOwnerId = users.get(users.size() - 1);
+            JobOwnerHelper.setOwnership(project, createDescription(ownerId, users, coOwners));
+        }
+    }
+    
+    @Benchmark
+    public boolean ownerMacro(MacroState state) {
+        return state.ownerMacro.hasPermission(state.ownerId, Item.CONFIGURE, RoleType.Project, state.project, null);
+    }
+    
+    @Benchmark
+    public boolean coOwnerMacro(MacroState state) {
+        return state.coOwnerMacro.hasPermission(state.lastCoOwnerId, Item.CONFIGURE, RoleType.Project, state.project, null);
+    }
+    
+    @Benchmark
+    public boolean coOwnerMacroWithoutCache(MacroState state) {
+        OwnershipDecisionCache.getInstance().invalidateAll();
+        return state.coOwnerMacro.hasPermission(state.lastCoOwnerId, Item.CONFIGURE, RoleType.Project, state.project, null);
+    }
+}
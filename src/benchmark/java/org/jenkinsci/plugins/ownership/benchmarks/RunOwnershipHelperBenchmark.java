@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.benchmarks;
+
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jenkinsci.plugins.ownership.model.runs.RunOwnershipHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks generation of environment variables in {@link RunOwnershipHelper}.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+public class RunOwnershipHelperBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class BuildState extends JenkinsBenchmarkState {
+        
+        @Param({"0", "10", "100"})
+        public int coOwners;
+        
+        FreeStyleBuild build;
+
+        @Override
+        protected void setUp() throws Exception {
+            final List<String> users = createUsers(coOwners + 1);
+            final FreeStyleProject project = j.createFreeStyleProject();
+            JobOwnerHelper.setOwnership(project, createDescription(users.get(0), users, coOwners));
+            build = j.buildAndAssertSuccess(project);
+        }
+    }
+    
+    @Benchmark
+    public Map<String, String> setUp(BuildState state) {
+        final Map<String, String> target = new HashMap<String, String>();
+        RunOwnershipHelper.setUp(state.build, target, null, true, true);
+        return target;
+    }
+}
@@ -27,43 +27,83 @@ import hudson.Util;
 import hudson.model.Descriptor;
 import hudson.model.User;
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.WeakHashMap;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.ownership.util.users.UserCache;
 
 /**
  * Contains description of item's ownership. 
  * This class is a main information entry for all ownership features.
+ * <p>
+ * Since 0.6 there are two kinds of descriptions.
+ * Canonical descriptions are immutable and shared, they are being retrieved via 
+ * {@link #intern(OwnershipDescription)}. Descriptions loaded from the disk 
+ * and descriptions stored in ownership properties are canonical.
+ * Descriptions created via constructors remain mutable for the legacy code,
+ * {@link #intern(OwnershipDescription)} takes an immutable snapshot of them.
  * @author Oleg Nenashev <nenashev@synopsys.com>
  * @since 0.0.3
  */
 public class OwnershipDescription implements Serializable {
+    
+    /**
+     * Pool of canonical descriptions.
+     * Values are weak as well, hence unused descriptions get collected.
+     */
+    private static final Map<OwnershipDescription, WeakReference<OwnershipDescription>> POOL = 
+            new WeakHashMap<OwnershipDescription, WeakReference<OwnershipDescription>>();
+    
+    private static final String[] NO_COOWNERS = new String[0];
+    
     /**
      * Disabled description, which means that ownership is disabled
      */
-    public static final OwnershipDescription DISABLED_DESCR = new OwnershipDescription(false, "");
+    public static final OwnershipDescription DISABLED_DESCR = intern(new OwnershipDescription(false, ""));
     
     /**
      * Indicates if ownership is enabled
      */
-    boolean ownershipEnabled;
+    private boolean ownershipEnabled;
     
     /**
      * UserId of primary user
      */
-    String primaryOwnerId;
+    private String primaryOwnerId;
     
     /**
      * Sids of the co-Owners.
-     * Sids can include users and groups.  
+     * Sids can include users and groups.
+     * The field is being retained as a persistence format.
+     */
+    private Set<String> coownersIds;
+    
+    /**
+     * Sorted array of co-owner sids, which is used for lookups.
+     * Available in canonical descriptions only.
+     */
+    private transient String[] coowners;
+    
+    /**
+     * Cached hash code of canonical descriptions.
      */
-    Set<String> coownersIds;
+    private transient int hashCode;
+    
+    /**
+     * Indicates that the description is canonical, hence immutable.
+     */
+    private transient boolean canonical;
 
     /**
      * Constructor.
@@ -88,10 +128,145 @@ public class OwnershipDescription implements Serializable {
         this.coownersIds =  coownersIds != null ? new TreeSet<String>(coownersIds) : new TreeSet<String>();
     }
     
+    /**
+     * Makes the description canonical.
+     * Should be invoked before the description gets shared.
+     */
+    private void freeze() {
+        if (coownersIds == null) { // Old or broken configurations
+            coownersIds = new TreeSet<String>();
+        }
+        coowners = toSortedArray(coownersIds);
+        hashCode = computeHashCode(coowners);
+        canonical = true;
+    }
+    
+    @Nonnull
+    private static String[] toSortedArray(@CheckForNull Set<String> sids) {
+        if (sids == null || sids.isEmpty()) {
+            return NO_COOWNERS;
+        }
+        final String[] res = sids.toArray(new String[sids.size()]);
+        Arrays.sort(res);
+        return res;
+    }
+    
+    private int computeHashCode(@Nonnull String[] sortedCoowners) {
+        int hash = ownershipEnabled ? 1 : 0;
+        hash = 31 * hash + (primaryOwnerId != null ? primaryOwnerId.hashCode() : 0);
+        hash = 31 * hash + Arrays.hashCode(sortedCoowners);
+        return hash;
+    }
+    
+    /**
+     * Gets sorted co-owner sids.
+     * Mutable descriptions compute them on each call.
+     */
+    @Nonnull
+    private String[] getSortedCoowners() {
+        return canonical ? coowners : toSortedArray(coownersIds);
+    }
+    
+    /**
+     * Routes loaded descriptions through the pool.
+     * @return Canonical description
+     */
+    private Object readResolve() {
+        freeze();
+        return intern(this);
+    }
+    
+    /**
+     * Gets a canonical instance of the ownership description.
+     * Items with same owners and co-owners will share the same instance.
+     * @param descr Description to be interned
+     * @return Canonical instance, which equals to the passed one.
+     * @since 0.6
+     */
+    @Nonnull
+    public static OwnershipDescription intern(@Nonnull OwnershipDescription descr) {
+        final OwnershipDescription candidate;
+        if (descr.canonical) {
+            candidate = descr;
+        } else { // Mutable descriptions may be modified later, hence a snapshot is being shared 
+            candidate = new OwnershipDescription(descr.ownershipEnabled, descr.primaryOwnerId, descr.coownersIds);
+            candidate.freeze();
+        }
+        
+        synchronized (POOL) {
+            final WeakReference<OwnershipDescription> ref = POOL.get(candidate);
+            final OwnershipDescription existing = ref != null ? ref.get() : null;
+            if (existing != null) {
+                return existing;
+            }
+            POOL.put(candidate, new WeakReference<OwnershipDescription>(candidate));
+            return candidate;
+        }
+    }
+    
+    /**
+     * Null-safe version of {@link #intern(OwnershipDescription)}.
+     * @param descr Description to be interned
+     * @return Canonical instance or null if the description is null
+     * @since 0.6
+     */
+    @CheckForNull
+    public static OwnershipDescription internNullable(@CheckForNull OwnershipDescription descr) {
+        return descr != null ? intern(descr) : null;
+    }
+    
+    /**
+     * Checks if the description is canonical.
+     * Canonical descriptions are immutable and may be shared between items.
+     * @return true if the description has been retrieved via {@link #intern(OwnershipDescription)}
+     * @since 0.6
+     */
+    public boolean isCanonical() {
+        return canonical;
+    }
+    
+    /**
+     * Copies the ownership info from another description.
+     * @param descr Source description
+     * @throws UnsupportedOperationException The description is canonical.
+     * Replace the description in the owner instead.
+     * @deprecated Since 0.6 descriptions in ownership properties are immutable.
+     * Replace the description in the owner instead.
+     */
+    @Deprecated
     public void assign(@Nonnull OwnershipDescription descr) {
+        if (canonical) {
+            throw new UnsupportedOperationException("Canonical OwnershipDescription cannot be modified: " + this);
+        }
         this.ownershipEnabled = descr.ownershipEnabled;
         this.primaryOwnerId = descr.primaryOwnerId;
-        this.coownersIds = descr.coownersIds;
+        this.coownersIds = descr.coownersIds != null ? new TreeSet<String>(descr.coownersIds) : new TreeSet<String>();
+    }
+
+    @Override
+    public int hashCode() {
+        return canonical ? hashCode : computeHashCode(getSortedCoowners());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof OwnershipDescription)) {
+            return false;
+        }
+        final OwnershipDescription other = (OwnershipDescription) obj;
+        if (ownershipEnabled != other.ownershipEnabled) {
+            return false;
+        }
+        if (canonical && other.canonical && hashCode != other.hashCode) {
+            return false;
+        }
+        if (primaryOwnerId == null ? other.primaryOwnerId != null : !primaryOwnerId.equals(other.primaryOwnerId)) {
+            return false;
+        }
+        return Arrays.equals(getSortedCoowners(), other.getSortedCoowners());
     }
 
     @Override
@@ -103,9 +278,10 @@ public class OwnershipDescription implements Serializable {
         StringBuilder builder = new StringBuilder();
         builder.append("owner=");
         builder.append(primaryOwnerId);
-        if (!coownersIds.isEmpty()) {
+        final String[] sortedCoowners = getSortedCoowners();
+        if (sortedCoowners.length != 0) {
             builder.append(" co-owners:[");
-            for (String coownerId : coownersIds) {
+            for (String coownerId : sortedCoowners) {
                 builder.append(coownerId);
                 builder.append(' ');
             }
@@ -138,16 +314,30 @@ public class OwnershipDescription implements Serializable {
      */
     @CheckForNull
     public User getPrimaryOwner() {
-        return User.get(primaryOwnerId, false, null);
+        return UserCache.getInstance().get(primaryOwnerId);
     }
 
     /**
      * Gets list of co-owners.
-     * @return Collection of co-owners
+     * @return Sorted collection of co-owners. 
+     * The collection is unmodifiable for canonical descriptions.
      */
     @Nonnull
     public Set<String> getCoownersIds() {
-        return coownersIds;
+        return canonical ? Collections.unmodifiableSet(coownersIds) : coownersIds;
+    }
+    
+    /**
+     * Checks if the sid belongs to co-owners.
+     * @param sid Sid to be checked
+     * @return true if the sid is a co-owner
+     * @since 0.6
+     */
+    public boolean isCoOwner(@CheckForNull String sid) {
+        if (sid == null) {
+            return false;
+        }
+        return canonical ? Arrays.binarySearch(coowners, sid) >= 0 : coownersIds.contains(sid);
     }
     
     /**
@@ -184,7 +374,7 @@ public class OwnershipDescription implements Serializable {
                 addUser(coOwnersSet, coOwners);
             }
         }   
-        return new OwnershipDescription(true, primaryOwner, coOwnersSet);
+        return intern(new OwnershipDescription(true, primaryOwner, coOwnersSet));
     }
     
     private static void addUser(Set<String> target, JSONObject userObj) throws Descriptor.FormException {
@@ -209,7 +399,7 @@ public class OwnershipDescription implements Serializable {
         if (isPrimaryOwner(user)) {
             return true;
         }
-        return acceptCoowners ? coownersIds.contains(user.getId()) : false;
+        return acceptCoowners ? isCoOwner(user.getId()) : false;
     }
     
     public boolean hasPrimaryOwner() {
@@ -217,7 +407,13 @@ public class OwnershipDescription implements Serializable {
     }
     
     public boolean isPrimaryOwner(User user) {
-        return user != null && user == getPrimaryOwner();
+        if (user == null) {
+            return false;
+        }
+        if (ownershipEnabled && user.getId().equals(primaryOwnerId)) {
+            return true; // Quick check without user resolution
+        }
+        return user == getPrimaryOwner();
     }
     
     /**
@@ -31,6 +31,8 @@ import com.synopsys.arc.jenkins.plugins.ownership.security.itemspecific.ItemSpec
 import hudson.ExtensionList;
 import hudson.Plugin;
 import hudson.Util;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
 import hudson.model.Descriptor;
 import hudson.model.Hudson;
 import hudson.model.User;
@@ -43,12 +45,19 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import javax.servlet.ServletException;
 import jenkins.model.Jenkins;
 import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.ownership.model.audit.OwnershipAuditLog;
+import org.jenkinsci.plugins.ownership.model.events.OwnershipChangeDispatcher;
+import org.jenkinsci.plugins.ownership.model.persistence.OwnershipPersistenceQueue;
+import org.jenkinsci.plugins.ownership.model.queue.OwnershipLoadBalancer;
+import org.jenkinsci.plugins.ownership.util.mail.MailAddressCache;
+import org.jenkinsci.plugins.ownership.util.ui.OwnershipRenderModel;
 import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerRequest;
 
@@ -79,6 +88,12 @@ public class OwnershipPlugin extends Plugin {
     private ItemSpecificSecurity defaultJobsSecurity;
     private OwnershipPluginConfiguration configuration;
     
+    /**
+     * Cached selection of the {@link MailAddressResolver}.
+     * The field is being refreshed on configuration and extension list changes.
+     */
+    private transient volatile MailResolverSelection mailResolverSelection;
+    
     /**
      * @deprecated Use {@link #getInstance()} instead
      */
@@ -103,6 +118,13 @@ public class OwnershipPlugin extends Plugin {
 	Hudson.getInstance().getActions().addAll(pluginActions);
     }
 
+    @Override
+    public void stop() throws Exception {
+        OwnershipPersistenceQueue.getInstance().flush();
+        OwnershipChangeDispatcher.getInstance().flush();
+        OwnershipAuditLog.getInstance().flush();
+    }
+
     @Override
     protected void load() throws IOException {
         super.load();
@@ -116,6 +138,8 @@ public class OwnershipPlugin extends Plugin {
             
             save();
         }
+        refreshMailResolver();
+        OwnershipLoadBalancer.configure(configuration.isPreferOwnedNodes());
     }
        
     public boolean isRequiresConfigureRights() {
@@ -165,6 +189,10 @@ public class OwnershipPlugin extends Plugin {
         this.mailResolverClassName = mailResolverClassName;
         this.defaultJobsSecurity = defaultJobsSecurity;
         this.configuration = configuration;
+        refreshMailResolver();
+        OwnershipLoadBalancer.configure(configuration.isPreferOwnedNodes());
+        MailAddressCache.getInstance().invalidateAll();
+        OwnershipRenderModel.invalidateAll();
         
         reinitActionsList();
 	save();
@@ -179,6 +207,7 @@ public class OwnershipPlugin extends Plugin {
         
         // Configurations
         configuration = req.bindJSON(OwnershipPluginConfiguration.class, formData);              
+        OwnershipLoadBalancer.configure(configuration.isPreferOwnedNodes());
               
         if (formData.containsKey("enableResolverRestrictions")) {
             JSONObject mailResolversConf = formData.getJSONObject("enableResolverRestrictions");
@@ -186,6 +215,9 @@ public class OwnershipPlugin extends Plugin {
         } else {
             mailResolverClassName = null;
         }
+        refreshMailResolver();
+        MailAddressCache.getInstance().invalidateAll();
+        OwnershipRenderModel.invalidateAll();
         
         if (formData.containsKey("defaultJobsSecurity")) {
             this.defaultJobsSecurity = getItemSpecificDescriptor().newInstance(req, formData.getJSONObject("defaultJobsSecurity"));
@@ -242,28 +274,119 @@ public class OwnershipPlugin extends Plugin {
     
     /**
      * Resolves e-mail using resolvers and global configuration.
+     * The method does not cache results, use {@link MailAddressCache} on hot paths.
      * @param user A user to be used
      * @return A e-mail string or null (if resolution fails)
      */
     @CheckForNull
     public String resolveEmail(User user) {
-        try {
-            if (hasMailResolverRestriction()) {
-                if (mailResolverClassName.equals(FAST_RESOLVER_ID)) {
-                    return MailAddressResolver.resolveFast(user);
-                } else {
-                    Class<MailAddressResolver> resolverClass = (Class<MailAddressResolver>)Class.forName(mailResolverClassName);
-                    MailAddressResolver res = MailAddressResolver.all().get(resolverClass);
-                    return res.findMailAddressFor(user);
-                }
-            } 
-        } catch (ClassNotFoundException ex) {
-            // Do nothing - fallback do default handler
+        if (hasMailResolverRestriction()) {
+            final MailResolverSelection selection = getMailResolverSelection();
+            if (selection.fast) {
+                return MailAddressResolver.resolveFast(user);
+            } else if (selection.resolver != null) {
+                return selection.resolver.findMailAddressFor(user);
+            }
+            // Fallback to the default handler
         }
         
         return MailAddressResolver.resolve(user);
     }
     
+    /**
+     * Gets a warning for the mail resolver configuration.
+     * @return Warning message or null if the configuration is fine
+     * @since 0.6
+     */
+    @CheckForNull
+    public String getMailResolverWarning() {
+        if (!hasMailResolverRestriction()) {
+            return null;
+        }
+        final MailResolverSelection selection = getMailResolverSelection();
+        return (selection.fast || selection.resolver != null) 
+                ? null : Messages.OwnershipPlugin_MailResolver_NotFound(selection.className);
+    }
+    
+    @Nonnull
+    private MailResolverSelection getMailResolverSelection() {
+        MailResolverSelection selection = mailResolverSelection;
+        if (selection == null || !selection.isActual(mailResolverClassName)) {
+            selection = refreshMailResolver();
+        }
+        return selection;
+    }
+    
+    /**
+     * Looks up the configured {@link MailAddressResolver}.
+     * @return New selection
+     */
+    @Nonnull
+    private synchronized MailResolverSelection refreshMailResolver() {
+        final String className = mailResolverClassName;
+        final ExtensionList<MailAddressResolver> resolvers = MailAddressResolver.all();
+        MailAddressResolver resolver = null;
+        if (className != null && !className.equals(FAST_RESOLVER_ID)) {
+            for (MailAddressResolver r : resolvers) {
+                // Configuration stores canonical names, see getPossibleMailResolvers()
+                if (className.equals(r.getClass().getCanonicalName()) || className.equals(r.getClass().getName())) {
+                    resolver = r;
+                    break;
+                }
+            }
+            if (resolver == null) {
+                LOGGER.log(Level.WARNING, "Mail resolver {0} is not available. "
+                        + "The default resolution logic will be used", className);
+            }
+        }
+        
+        final MailResolverSelection selection = new MailResolverSelection(className, resolver, resolvers.size());
+        mailResolverSelection = selection;
+        return selection;
+    }
+    
+    /**
+     * Refreshes the mail resolver when all extensions are available.
+     * The plugin gets started before the extension list gets augmented.
+     */
+    @Initializer(after = InitMilestone.EXTENSIONS_AUGMENTED)
+    public static void onExtensionsAugmented() {
+        final OwnershipPlugin plugin = getInstance();
+        plugin.refreshMailResolver();
+        MailAddressCache.getInstance().invalidateAll();
+    }
+    
+    /**
+     * Snapshot of the mail resolver selection.
+     */
+    private static final class MailResolverSelection {
+        @CheckForNull
+        private final String className;
+        @CheckForNull
+        private final MailAddressResolver resolver;
+        private final boolean fast;
+        private final int extensionsCount;
+
+        MailResolverSelection(@CheckForNull String className, @CheckForNull MailAddressResolver resolver, int extensionsCount) {
+            this.className = className;
+            this.resolver = resolver;
+            this.fast = FAST_RESOLVER_ID.equals(className);
+            this.extensionsCount = extensionsCount;
+        }
+        
+        /**
+         * Checks that the selection is actual.
+         * The selection becomes outdated if the configuration or the 
+         * extensions list changes, e.g. on dynamic plugin loading.
+         */
+        boolean isActual(@CheckForNull String className) {
+            if (this.className == null ? className != null : !this.className.equals(className)) {
+                return false;
+            }
+            return extensionsCount == MailAddressResolver.all().size();
+        }
+    }
+    
     @Nonnull
     public Collection<String> getPossibleMailResolvers() {
         ExtensionList<MailAddressResolver> extensions = MailAddressResolver.all();
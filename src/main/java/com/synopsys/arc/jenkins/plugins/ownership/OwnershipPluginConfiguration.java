@@ -31,6 +31,7 @@ import hudson.model.Describable;
 import hudson.model.Descriptor;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import org.jenkinsci.plugins.ownership.model.queue.OwnershipLoadBalancer;
 import org.jenkinsci.plugins.ownership.model.runs.OwnershipRunListener;
 import org.jenkinsci.plugins.ownership.util.environment.EnvSetupOptions;
 import org.kohsuke.stapler.DataBoundConstructor;
@@ -51,13 +52,25 @@ public class OwnershipPluginConfiguration
      * @since 0.6
      */
     private final @CheckForNull EnvSetupOptions globalEnvSetupOptions;
+    /**
+     * Enables {@link OwnershipLoadBalancer}, which prefers nodes owned by job owners.
+     * @since 0.6
+     */
+    private final boolean preferOwnedNodes;
 
     @DataBoundConstructor
     public OwnershipPluginConfiguration(@Nonnull ItemOwnershipPolicy itemOwnershipPolicy, 
-            @Nonnull MailOptions mailOptions, EnvSetupOptions globalEnvSetupOptions) {
+            @Nonnull MailOptions mailOptions, EnvSetupOptions globalEnvSetupOptions, 
+            boolean preferOwnedNodes) {
         this.itemOwnershipPolicy = itemOwnershipPolicy;
         this.mailOptions = mailOptions;
         this.globalEnvSetupOptions = globalEnvSetupOptions;
+        this.preferOwnedNodes = preferOwnedNodes;
+    }
+    
+    public OwnershipPluginConfiguration(@Nonnull ItemOwnershipPolicy itemOwnershipPolicy, 
+            @Nonnull MailOptions mailOptions, EnvSetupOptions globalEnvSetupOptions) {
+        this(itemOwnershipPolicy, mailOptions, globalEnvSetupOptions, false);
     }
     
     @Deprecated
@@ -81,6 +94,14 @@ public class OwnershipPluginConfiguration
         return globalEnvSetupOptions;
     }
 
+    /**
+     * @return true if builds should prefer nodes owned by job owners
+     * @since 0.6
+     */
+    public boolean isPreferOwnedNodes() {
+        return preferOwnedNodes;
+    }
+
     @Override
     public Descriptor<OwnershipPluginConfiguration> getDescriptor() {
         return DESCRIPTOR;
@@ -29,6 +29,12 @@ import hudson.Extension;
 import hudson.model.Job;
 import hudson.views.ListViewColumnDescriptor;
 import hudson.views.ListViewColumn;
+import java.util.Collection;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.jenkinsci.plugins.ownership.util.ui.JobOwnerColumnDataProvider;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 /**
  * Provides Ownership column for the list view.
@@ -37,9 +43,38 @@ import hudson.views.ListViewColumn;
  */
 public class JobOwnerColumn extends ListViewColumn {
 
-    @DataBoundConstructor
+    /**
+     * Shows the number of co-owners in an additional column.
+     * @since 0.6
+     */
+    private boolean showCoOwnersCount;
+    
     public JobOwnerColumn() {
+        this(false);
+    }
+    
+    @DataBoundConstructor
+    public JobOwnerColumn(boolean showCoOwnersCount) {
         super();
+        this.showCoOwnersCount = showCoOwnersCount;
+    }
+
+    public boolean isShowCoOwnersCount() {
+        return showCoOwnersCount;
+    }
+    
+    /**
+     * Gets precomputed data of the row.
+     * Data for all rows of the view will be calculated on the first invocation.
+     * @param rows All rows of the view. Null if they are not known
+     * @param job Job of the row
+     * @return Row data
+     * @since 0.6
+     */
+    @Restricted(NoExternalUse.class)
+    public @Nonnull JobOwnerColumnDataProvider.Row getRowData(
+            @CheckForNull Collection<?> rows, @Nonnull Job<?,?> job) {
+        return JobOwnerColumnDataProvider.getRow(rows, job);
     }
 
     public String getJobOwner(@SuppressWarnings("rawtypes") Job job) {
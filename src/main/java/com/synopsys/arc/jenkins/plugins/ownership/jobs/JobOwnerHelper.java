@@ -27,9 +27,6 @@ import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
 import com.synopsys.arc.jenkins.plugins.ownership.OwnershipPlugin;
 import com.synopsys.arc.jenkins.plugins.ownership.security.itemspecific.ItemSpecificSecurity;
 import com.synopsys.arc.jenkins.plugins.ownership.util.AbstractOwnershipHelper;
-import com.synopsys.arc.jenkins.plugins.ownership.util.UserCollectionFilter;
-import com.synopsys.arc.jenkins.plugins.ownership.util.userFilters.AccessRightsFilter;
-import com.synopsys.arc.jenkins.plugins.ownership.util.userFilters.IUserFilter;
 import com.synopsys.arc.jenkins.plugins.ownership.wrappers.OwnershipBuildWrapper;
 import hudson.matrix.MatrixConfiguration;
 import hudson.model.AbstractBuild;
@@ -42,6 +39,9 @@ import java.util.Collection;
 import java.util.Map;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import org.jenkinsci.plugins.ownership.model.store.OwnershipStore;
+import org.jenkinsci.plugins.ownership.util.users.PossibleOwnersResolver;
+import org.jenkinsci.plugins.ownership.util.users.UserCache;
 
 /**
  * Helper for Jobs Ownership.
@@ -74,6 +74,17 @@ public class JobOwnerHelper extends AbstractOwnershipHelper<Job<?,?>> {
         return null;
     }
     
+    /**
+     * Gets the job, which defines the ownership of the specified one.
+     * Matrix configurations inherit the ownership of their parents.
+     * @param job Job
+     * @return Parent project for matrix configurations, the job itself otherwise
+     * @since 0.6
+     */
+    public static @Nonnull Job<?, ?> getOwnershipSource(@Nonnull Job<?, ?> job) {
+        return (job instanceof MatrixConfiguration) ? ((MatrixConfiguration)job).getParent() : job;
+    }
+    
     public static boolean isUserExists(@Nonnull User user) {
         assert (user != null);
         return isUserExists(user.getId());
@@ -81,11 +92,19 @@ public class JobOwnerHelper extends AbstractOwnershipHelper<Job<?,?>> {
     
     public static boolean isUserExists(@Nonnull String userIdOrFullName) {
         assert (userIdOrFullName != null);
-        return User.get(userIdOrFullName, false, null) != null;
+        return UserCache.getInstance().exists(userIdOrFullName);
     }
      
     @Override
     public @Nonnull OwnershipDescription getOwnershipDescription(@Nonnull Job<?, ?> job) {
+        final OwnershipStore store = OwnershipStore.getActive();
+        if (store.isExternal()) {
+            final OwnershipDescription stored = store.getJobOwnership(getOwnershipSource(job).getFullName());
+            if (stored != null) {
+                return stored;
+            }
+        }
+        
         JobOwnerJobProperty prop = getOwnerProperty(job);     
         return (prop != null) ? prop.getOwnership() : OwnershipDescription.DISABLED_DESCR;
     }
@@ -98,36 +117,51 @@ public class JobOwnerHelper extends AbstractOwnershipHelper<Job<?,?>> {
      */
     public static void setOwnership(@Nonnull Job<?, ?> job, 
             @CheckForNull OwnershipDescription descr) throws IOException {
-        JobOwnerJobProperty prop = JobOwnerHelper.getOwnerProperty(job);
-        if (prop == null) {
-            prop = new JobOwnerJobProperty(descr, null);
-            job.addProperty(prop);
-        } else {
-            prop.setOwnershipDescription(descr);
-        }
+        OwnershipStore.getActive().setJobOwnership(job, descr);
     }
         
     /**
      * Sets the project-specific security.
+     * If the job has no ownership property (e.g. its ownership is kept
+     * in an external {@link OwnershipStore}), the property is being created.
      * @param job A job to be modified
      * @param security Security settings to be set. Use null to drop settings 
      * @throws IOException 
      */
+    @SuppressWarnings("unchecked")
     public static void setProjectSpecificSecurity(@Nonnull Job<?, ?> job, 
             @CheckForNull ItemSpecificSecurity security) throws IOException {
         JobOwnerJobProperty prop = JobOwnerHelper.getOwnerProperty(job);
         if (prop == null) {
-            throw new IOException("Ownership is not configured for "+job);
-        } else {
-            prop.setItemSpecificSecurity(security);
+            // The ownership itself remains in the store
+            prop = new JobOwnerJobProperty(null, null);
+            ((Job)getOwnershipSource(job)).addProperty(prop);
+        }
+        prop.setItemSpecificSecurity(security);
+    }
+    
+    /**
+     * Gets the item-specific security, which applies to the job.
+     * Jobs without the ownership property use the default security 
+     * if their ownership is enabled in the active {@link OwnershipStore}.
+     * @param job Job
+     * @return Item-specific security or null if it is not applicable
+     * @since 0.6
+     */
+    @CheckForNull
+    public static ItemSpecificSecurity getItemSpecificSecurity(@Nonnull Job<?, ?> job) {
+        final JobOwnerJobProperty prop = getOwnerProperty(job);
+        if (prop != null) {
+            return prop.getItemSpecificSecurity();
         }
+        return Instance.getOwnershipDescription(job).isOwnershipEnabled()
+                ? OwnershipPlugin.getInstance().getDefaultJobsSecurity() : null;
     }
 
     @Override
     public @Nonnull Collection<User> getPossibleOwners(@Nonnull Job<?, ?> item) {
         if (OwnershipPlugin.getInstance().isRequiresConfigureRights()) {
-            IUserFilter filter = new AccessRightsFilter(item, Job.CONFIGURE);
-            return UserCollectionFilter.filterUsers(User.getAll(), true, filter);
+            return PossibleOwnersResolver.getInstance().getPossibleOwners(item, Job.CONFIGURE);
         } else {
             return User.getAll();
         }
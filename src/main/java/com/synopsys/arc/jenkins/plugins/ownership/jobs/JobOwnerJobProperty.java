@@ -29,16 +29,15 @@ import com.synopsys.arc.jenkins.plugins.ownership.Messages;
 import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
 import com.synopsys.arc.jenkins.plugins.ownership.OwnershipPlugin;
 import com.synopsys.arc.jenkins.plugins.ownership.security.itemspecific.ItemSpecificSecurity;
-import com.synopsys.arc.jenkins.plugins.ownership.util.UserCollectionFilter;
 import com.synopsys.arc.jenkins.plugins.ownership.util.ui.OwnershipLayoutFormatter;
-import com.synopsys.arc.jenkins.plugins.ownership.util.userFilters.AccessRightsFilter;
-import com.synopsys.arc.jenkins.plugins.ownership.util.userFilters.IUserFilter;
 import net.sf.json.JSONObject;
 
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.StaplerRequest;
 
 import hudson.Extension;
+import hudson.model.AbstractProject;
+import hudson.model.Action;
 import hudson.model.Descriptor;
 import hudson.model.Job;
 import hudson.model.JobProperty;
@@ -47,9 +46,17 @@ import hudson.model.User;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.util.Collection;
+import java.util.Collections;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import javax.servlet.ServletException;
+import org.jenkinsci.plugins.ownership.model.audit.OwnershipAuditEntry;
+import org.jenkinsci.plugins.ownership.model.audit.OwnershipAuditLog;
+import org.jenkinsci.plugins.ownership.model.events.OwnershipChangeDispatcher;
+import org.jenkinsci.plugins.ownership.model.index.OwnershipIndex;
+import org.jenkinsci.plugins.ownership.model.persistence.OwnershipPersistenceQueue;
+import org.jenkinsci.plugins.ownership.model.store.OwnershipStore;
+import org.jenkinsci.plugins.ownership.util.users.PossibleOwnersResolver;
 import org.kohsuke.stapler.StaplerResponse;
 
 /**
@@ -68,12 +75,18 @@ public class JobOwnerJobProperty extends JobProperty<Job<?, ?>>
         
     @DataBoundConstructor
     public JobOwnerJobProperty( OwnershipDescription ownershipDescription, ItemSpecificSecurity security) {
-        this.ownership = ownershipDescription;
+        this.ownership = OwnershipDescription.internNullable(ownershipDescription);
         this.itemSpecificSecurity = security;
     }
 
     @Override
     public OwnershipDescription getOwnership() {
+        if (owner != null) {
+            final OwnershipDescription stored = OwnershipStore.getActive().getJobOwnership(owner.getFullName());
+            if (stored != null) {
+                return stored;
+            }
+        }
         return (ownership!=null) ? ownership : OwnershipDescription.DISABLED_DESCR;
     }
 
@@ -107,10 +120,15 @@ public class JobOwnerJobProperty extends JobProperty<Job<?, ?>>
       
     public Collection<User> getUsers()
     {     
-        //TODO: Sort users
-        IUserFilter filter = new AccessRightsFilter(owner, Job.CONFIGURE);
-        Collection<User> res = UserCollectionFilter.filterUsers(User.getAll(), true, filter);
-        return res;
+        return PossibleOwnersResolver.getInstance().getPossibleOwners(owner, Job.CONFIGURE);
+    }
+
+    @Override
+    protected void setOwner(Job<?, ?> owner) {
+        super.setOwner(owner);
+        final String fullName = owner.getFullName();
+        OwnershipChangeDispatcher.getInstance().jobChanged(fullName, 
+                OwnershipIndex.getInstance().getJobOwnership(fullName), getOwnership());
     }
 
     @Override
@@ -132,6 +150,19 @@ public class JobOwnerJobProperty extends JobProperty<Job<?, ?>>
         return OwnershipPlugin.getInstance().getOwnershipLayoutFormatterProvider().getLayoutFormatter(getDescribedItem());
     }   
     
+    /**
+     * Contributes the ownership action to jobs, which are not {@link AbstractProject}s.
+     * {@link OwnershipActionFactory} handles projects, but Jenkins core
+     * does not provide transient action factories for other job types.
+     * @since 0.6
+     */
+    @Override
+    public Collection<? extends Action> getJobActions(Job<?, ?> job) {
+        return (job instanceof AbstractProject) 
+                ? Collections.<Action>emptyList()
+                : Collections.singleton(new JobOwnerJobAction(job));
+    }
+    
     @Extension
     public static class DescriptorImpl extends JobPropertyDescriptor {
         @Override
@@ -156,13 +187,33 @@ public class JobOwnerJobProperty extends JobProperty<Job<?, ?>>
         setOwnershipDescription(OwnershipDescription.parseJSON(jsonOwnership));
     }
     
+    /**
+     * Sets the ownership of the job.
+     * If an external {@link OwnershipStore} is active, the ownership is written
+     * to the store only and the property keeps its previous value.
+     * @param descr Ownership description
+     * @throws IOException Cannot save the ownership
+     */
     public void setOwnershipDescription(@CheckForNull OwnershipDescription descr) throws IOException {
-        ownership = descr;
-        owner.save();
+        final OwnershipStore store = OwnershipStore.getActive();
+        if (store.isExternal()) {
+            store.setJobOwnership(owner, descr);
+            return;
+        }
+        
+        final OwnershipDescription oldOwnership = getOwnership();
+        ownership = OwnershipDescription.internNullable(descr);
+        OwnershipPersistenceQueue.getInstance().schedule(owner);
+        OwnershipChangeDispatcher.getInstance().jobChanged(owner.getFullName(), oldOwnership, getOwnership());
     }
     
     public void setItemSpecificSecurity(@CheckForNull ItemSpecificSecurity security) throws IOException {
+        final boolean hadSecurity = itemSpecificSecurity != null;
         itemSpecificSecurity = security;
-        owner.save();
+        OwnershipPersistenceQueue.getInstance().schedule(owner);
+        OwnershipAuditLog.getInstance().record(new OwnershipAuditEntry(System.currentTimeMillis(), 
+                OwnershipChangeDispatcher.getCurrentUserId(), "job", owner.getFullName(), 
+                OwnershipAuditEntry.ACTION_ITEM_SPECIFIC_SECURITY, 
+                hadSecurity ? "custom" : "default", security != null ? "custom" : "default"));
     }
 }
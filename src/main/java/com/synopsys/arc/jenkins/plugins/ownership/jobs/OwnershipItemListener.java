@@ -26,11 +26,19 @@ package com.synopsys.arc.jenkins.plugins.ownership.jobs;
 import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
 import com.synopsys.arc.jenkins.plugins.ownership.OwnershipPlugin;
 import com.synopsys.arc.jenkins.plugins.ownership.extensions.ItemOwnershipPolicy;
+import com.synopsys.arc.jenkins.plugins.ownership.security.rolestrategy.OwnershipDecisionCache;
 import hudson.Extension;
 import hudson.model.Item;
+import hudson.model.ItemGroup;
 import hudson.model.Job;
 import hudson.model.listeners.ItemListener;
 import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jenkinsci.plugins.ownership.model.index.OwnershipIndex;
+import org.jenkinsci.plugins.ownership.model.persistence.OwnershipPersistenceQueue;
+import org.jenkinsci.plugins.ownership.model.store.OwnershipStore;
+import org.jenkinsci.plugins.ownership.util.mail.MailAddressCache;
 
 /**
  * Listener checks for job configuration changes and
@@ -42,6 +50,8 @@ import java.io.IOException;
 @Extension
 public class OwnershipItemListener extends ItemListener {
     
+    private static final Logger LOGGER = Logger.getLogger(OwnershipItemListener.class.getName());
+    
     @Override
     public void onCopied(Item src, Item item) {      
         OwnershipDescription d = getPolicy().onCopied(src, item);
@@ -54,6 +64,40 @@ public class OwnershipItemListener extends ItemListener {
         modifyOwnership(item, d);
     }
     
+    @Override
+    public void onLoaded() {
+        // Also invoked by "Reload Configuration from Disk", which replaces all items
+        final OwnershipIndex index = OwnershipIndex.getInstance();
+        index.rebuild();
+        OwnershipDecisionCache.getInstance().invalidateAll();
+        MailAddressCache.getInstance().warmUp(index.getKnownOwners());
+    }
+
+    @Override
+    public void onDeleted(Item item) {
+        final OwnershipIndex index = OwnershipIndex.getInstance();
+        if (item instanceof Job) {
+            index.removeJob(item.getFullName());
+        }
+        if (item instanceof ItemGroup) {
+            index.removeJobsWithin(item.getFullName());
+        }
+        OwnershipPersistenceQueue.getInstance().cancel(item);
+        OwnershipStore.getActive().onDeleted(item.getFullName());
+        // Items are rarely deleted, so we just drop all cached decisions
+        OwnershipDecisionCache.getInstance().invalidateAll();
+    }
+
+    @Override
+    public void onRenamed(Item item, String oldName, String newName) {
+        final String parentFullName = item.getParent().getFullName();
+        final String oldFullName = parentFullName.length() == 0 
+                ? oldName : parentFullName + "/" + oldName;
+        OwnershipStore.getActive().onRenamed(oldFullName, item.getFullName());
+        OwnershipIndex.getInstance().renameJob(oldFullName, item.getFullName());
+        OwnershipDecisionCache.getInstance().invalidateAll();
+    }
+    
     private ItemOwnershipPolicy getPolicy() {
         return OwnershipPlugin.getInstance().getConfiguration().getItemOwnershipPolicy();
     }
@@ -64,7 +108,7 @@ public class OwnershipItemListener extends ItemListener {
             try {
                 JobOwnerHelper.setOwnership(job, ownership);
             } catch (IOException ex) {
-                //TODO: do something
+                LOGGER.log(Level.WARNING, "Cannot set the ownership of " + item.getFullName(), ex);
             }
         }
     }
@@ -28,23 +28,48 @@ import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
 import com.synopsys.arc.jenkins.plugins.ownership.util.userFilters.UserComparator;
 import com.synopsys.arc.jenkins.plugins.ownership.util.UserWrapper;
 import hudson.Extension;
-import hudson.model.AbstractProject;
 import hudson.model.Descriptor;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Job;
 import hudson.model.TopLevelItem;
 import hudson.model.User;
 import hudson.model.View;
+import hudson.util.DaemonThreadFactory;
 import hudson.views.ViewJobFilter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
 import net.sf.json.JSONObject;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
+import org.jenkinsci.plugins.ownership.model.index.OwnershipIndex;
+import org.jenkinsci.plugins.ownership.model.traversal.OwnershipTraversal;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.StaplerRequest;
 
 /**
  * Filters owner's and co-owners.
+ * Jobs of any type are supported. 
+ * Folders are being accepted if they contain matching jobs on any level.
  * @author Oleg Nenashev <nenashev@synopsys.com>
  * @since 0.1
  */
@@ -54,6 +79,24 @@ public class OwnershipJobFilter extends ViewJobFilter {
      * Macro, which allows to select currently logged user for the filter.
      */
     private static final String MACRO_ME = "@Me";
+    
+    private static final Logger LOGGER = Logger.getLogger(OwnershipJobFilter.class.getName());
+    
+    /**
+     * Maximum number of threads, which scan big views without the ownership index.
+     */
+    private static final int SCAN_THREADS = Integer.getInteger(
+            OwnershipJobFilter.class.getName() + ".scanThreads", 
+            Math.min(4, Runtime.getRuntime().availableProcessors()));
+    
+    /**
+     * Number of items to be scanned by a single task.
+     * Smaller views are being scanned in the calling thread.
+     */
+    private static final int SCAN_CHUNK_SIZE = Integer.getInteger(
+            OwnershipJobFilter.class.getName() + ".scanChunkSize", 1000);
+    
+    private static ExecutorService scanExecutor;
 
     String ownerId;
     boolean acceptsCoowners;
@@ -78,37 +121,178 @@ public class OwnershipJobFilter extends ViewJobFilter {
 
     @Override
     public List<TopLevelItem> filter(List<TopLevelItem> added, List<TopLevelItem> all, View filteringView) {
-        final ArrayList<TopLevelItem> newList = new ArrayList<TopLevelItem>();
-        final UserWrapper userWrapper = new UserWrapper(ownerId);
-
+        // The macro is being resolved once, the scan compares plain IDs
+        final String userId = new UserWrapper(ownerId).getEffectiveUserId();
+        if (userId == null) {
+            return new ArrayList<TopLevelItem>();
+        }
+        
+        final OwnershipIndex index = OwnershipIndex.getInstance();
+        if (index.isReady()) {
+            return filterIndexed(added, index.getOwnedJobs(userId, acceptsCoowners));
+        }
+        
+        if (added.size() <= SCAN_CHUNK_SIZE || SCAN_THREADS <= 1) {
+            return scan(added, userId, acceptsCoowners);
+        }
+        return scanParallel(added, userId, acceptsCoowners);
+    }
+    
+    /**
+     * Intersects the list of items with the owned jobs.
+     * Folders match if they contain owned jobs on any level, 
+     * which are visible to the current user.
+     * The order of items is being retained.
+     */
+    @Nonnull
+    private static List<TopLevelItem> filterIndexed(@Nonnull List<TopLevelItem> added, 
+            @Nonnull Set<String> ownedJobs) {
+        if (ownedJobs.isEmpty()) {
+            return new ArrayList<TopLevelItem>();
+        }
+        final ArrayList<TopLevelItem> newList = new ArrayList<TopLevelItem>(Math.min(added.size(), ownedJobs.size()));
+        Set<String> ownedFolders = null; // Calculated on the first folder
         for (TopLevelItem item : added) {
-            if (item instanceof AbstractProject) { // Ignore non-project items
-                AbstractProject project = (AbstractProject) item;
-                OwnershipDescription ownership = JobOwnerHelper.Instance.getOwnershipDescription(project);
-                if (!ownership.isOwnershipEnabled()) {
-                    continue;
+            if (item instanceof Job) {
+                if (ownedJobs.contains(item.getFullName())) {
+                    newList.add(item);
                 }
-
-                boolean matches = false; // Check owner
-                if (userWrapper.meetsMacro(ownership.getPrimaryOwnerId())) {
-                    matches = true;
+            } else if (OwnershipTraversal.isFolder(item)) {
+                if (ownedFolders == null) {
+                    ownedFolders = getFoldersWithVisibleJobs(added, ownedJobs);
                 }
-                if (acceptsCoowners && !matches) { // Check co-owners
-                    for (String coOwnerId : ownership.getCoownersIds()) {
-                        if (userWrapper.meetsMacro(coOwnerId)) {
-                            matches = true;
-                            break;
-                        }
-                    }
+                if (ownedFolders.contains(item.getFullName())) {
+                    newList.add(item);
                 }
-                if (matches) {
+            }
+        }
+        return newList;
+    }
+    
+    /**
+     * Gets folders from the list, which contain owned jobs visible to the current user.
+     * Each owned job is being checked only if it may add a new folder to the result.
+     */
+    @Nonnull
+    private static Set<String> getFoldersWithVisibleJobs(@Nonnull List<TopLevelItem> items, 
+            @Nonnull Set<String> ownedJobs) {
+        final Set<String> candidates = new HashSet<String>();
+        for (TopLevelItem item : items) {
+            if (OwnershipTraversal.isFolder(item)) {
+                candidates.add(item.getFullName());
+            }
+        }
+        
+        final Jenkins jenkins = Jenkins.getInstance();
+        final Set<String> res = new HashSet<String>();
+        for (String jobName : ownedJobs) {
+            if (res.size() == candidates.size()) {
+                break; // All folders match
+            }
+            final List<String> newFolders = new ArrayList<String>();
+            for (String folder : OwnershipTraversal.getParentFolders(Collections.singleton(jobName))) {
+                if (candidates.contains(folder) && !res.contains(folder)) {
+                    newFolders.add(folder);
+                }
+            }
+            if (newFolders.isEmpty()) {
+                continue;
+            }
+            final Job<?, ?> job = jenkins.getItemByFullName(jobName, Job.class);
+            if (job != null && job.hasPermission(Item.READ)) {
+                res.addAll(newFolders);
+            }
+        }
+        return res;
+    }
+    
+    @Nonnull
+    private static List<TopLevelItem> scan(@Nonnull List<TopLevelItem> items, 
+            @Nonnull String userId, boolean acceptsCoowners) {
+        final ArrayList<TopLevelItem> newList = new ArrayList<TopLevelItem>();
+        for (TopLevelItem item : items) {
+            if (item instanceof Job) {
+                OwnershipDescription ownership = JobOwnerHelper.Instance.getOwnershipDescription((Job<?,?>) item);
+                if (OwnershipTraversal.isOwnedBy(ownership, userId, acceptsCoowners)) {
+                    newList.add(item);
+                }
+            } else if (OwnershipTraversal.isFolder(item)) {
+                // Stops on the first owned job
+                if (OwnershipTraversal.hasOwnedJobs((ItemGroup<?>) item, userId, acceptsCoowners)) {
                     newList.add(item);
                 }
             }
         }
-
         return newList;
     }
+    
+    /**
+     * Scans big lists in chunks on a shared executor.
+     * Chunk results are being merged in the original order.
+     */
+    @Nonnull
+    private static List<TopLevelItem> scanParallel(@Nonnull List<TopLevelItem> added, 
+            @Nonnull final String userId, final boolean acceptsCoowners) {
+        final List<Future<List<TopLevelItem>>> futures = new ArrayList<Future<List<TopLevelItem>>>();
+        // Folder contents depend on permissions of the current user
+        final SecurityContext callerContext = SecurityContextHolder.getContext();
+        try {
+            for (int start = 0; start < added.size(); start += SCAN_CHUNK_SIZE) {
+                final List<TopLevelItem> chunk = added.subList(start, Math.min(start + SCAN_CHUNK_SIZE, added.size()));
+                futures.add(getScanExecutor().submit(new Callable<List<TopLevelItem>>() {
+                    public List<TopLevelItem> call() throws Exception {
+                        final SecurityContext orig = SecurityContextHolder.getContext();
+                        SecurityContextHolder.setContext(callerContext);
+                        try {
+                            return scan(chunk, userId, acceptsCoowners);
+                        } finally {
+                            SecurityContextHolder.setContext(orig);
+                        }
+                    }
+                }));
+            }
+            
+            final ArrayList<TopLevelItem> newList = new ArrayList<TopLevelItem>();
+            for (Future<List<TopLevelItem>> future : futures) {
+                newList.addAll(future.get());
+            }
+            return newList;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            LOGGER.log(Level.WARNING, "Interrupted the parallel view filtering, falling back to the sequential one", ex);
+        } catch (ExecutionException ex) {
+            LOGGER.log(Level.WARNING, "Failed the parallel view filtering, falling back to the sequential one", ex);
+        } catch (RejectedExecutionException ex) {
+            LOGGER.log(Level.FINE, "Scan executor is busy, falling back to the sequential view filtering", ex);
+        } finally {
+            for (Future<List<TopLevelItem>> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return scan(added, userId, acceptsCoowners);
+    }
+    
+    @Nonnull
+    private static synchronized ExecutorService getScanExecutor() {
+        if (scanExecutor == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(SCAN_THREADS, SCAN_THREADS, 
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ScanThreadFactory());
+            executor.allowCoreThreadTimeOut(true);
+            scanExecutor = executor;
+        }
+        return scanExecutor;
+    }
+    
+    private static final class ScanThreadFactory implements ThreadFactory {
+        private final ThreadFactory delegate = new DaemonThreadFactory();
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        public Thread newThread(Runnable r) {
+            Thread t = delegate.newThread(r);
+            t.setName("Ownership view filter #" + counter.incrementAndGet());
+            return t;
+        }
+    }
 
     @Extension
     public static class DescriptorImpl extends Descriptor<ViewJobFilter> {
@@ -131,7 +315,10 @@ public class OwnershipJobFilter extends ViewJobFilter {
      * Get list of users for the selector.
      *
      * @return Collection of all registered users
+     * @deprecated The configuration page uses autocompletion since 0.6.
+     *      See {@link com.synopsys.arc.jenkins.plugins.ownership.util.ui.UserSelector.DescriptorImpl#doAutoCompleteSelectedUserId(java.lang.String)}
      */
+    @Deprecated
     public static Collection<UserWrapper> getAvailableUsers() {
         // Sort users
         UserComparator comparator = new UserComparator();
@@ -26,9 +26,6 @@ package com.synopsys.arc.jenkins.plugins.ownership.nodes;
 import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
 import com.synopsys.arc.jenkins.plugins.ownership.OwnershipPlugin;
 import com.synopsys.arc.jenkins.plugins.ownership.util.AbstractOwnershipHelper;
-import com.synopsys.arc.jenkins.plugins.ownership.util.UserCollectionFilter;
-import com.synopsys.arc.jenkins.plugins.ownership.util.userFilters.AccessRightsFilter;
-import com.synopsys.arc.jenkins.plugins.ownership.util.userFilters.IUserFilter;
 import hudson.model.Computer;
 import hudson.model.Node;
 import hudson.model.User;
@@ -37,6 +34,8 @@ import java.io.IOException;
 import java.util.Collection;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import org.jenkinsci.plugins.ownership.model.store.OwnershipStore;
+import org.jenkinsci.plugins.ownership.util.users.PossibleOwnersResolver;
 
 /**
  * Provides helper for Node owner.
@@ -67,6 +66,14 @@ public class NodeOwnerHelper extends AbstractOwnershipHelper<Node> {
             return OwnershipDescription.DISABLED_DESCR;
         }
         
+        final OwnershipStore store = OwnershipStore.getActive();
+        if (store.isExternal()) {
+            final OwnershipDescription stored = store.getNodeOwnership(item.getNodeName());
+            if (stored != null) {
+                return stored;
+            }
+        }
+        
         OwnerNodeProperty prop = getOwnerProperty(item);
         return prop != null ? prop.getOwnership() : OwnershipDescription.DISABLED_DESCR;
     }
@@ -74,8 +81,7 @@ public class NodeOwnerHelper extends AbstractOwnershipHelper<Node> {
     @Override
     public Collection<User> getPossibleOwners(Node item) {
         if (OwnershipPlugin.getInstance().isRequiresConfigureRights()) {
-            IUserFilter filter = new AccessRightsFilter(item, Computer.CONFIGURE);
-            return UserCollectionFilter.filterUsers(User.getAll(), true, filter);
+            return PossibleOwnersResolver.getInstance().getPossibleOwners(item, Computer.CONFIGURE);
         } else {
             return User.getAll();
         }
@@ -89,13 +95,23 @@ public class NodeOwnerHelper extends AbstractOwnershipHelper<Node> {
      */
     public static void setOwnership(@Nonnull Node node, 
             @CheckForNull OwnershipDescription descr) throws IOException {
-        OwnerNodeProperty prop = NodeOwnerHelper.getOwnerProperty(node);
-        if (prop == null) {
-            prop = new OwnerNodeProperty(node, descr);
-            node.getNodeProperties().add(prop);
-        } else {
-            prop.setOwnershipDescription(descr);
-        }
+        setOwnership(node, descr, true);
+    }
+    
+    /**
+     * Sets ownership of the node.
+     * Nodes are being stored in the global configuration, hence bulk 
+     * operations may skip saving and persist the configuration once.
+     * Adding of new properties always saves the configuration.
+     * @param node A target node
+     * @param descr An ownership description to be assigned
+     * @param save Save the configuration if the existing property gets modified
+     * @throws IOException A property modification error
+     * @since 0.6
+     */
+    public static void setOwnership(@Nonnull Node node, 
+            @CheckForNull OwnershipDescription descr, boolean save) throws IOException {
+        OwnershipStore.getActive().setNodeOwnership(node, descr, save);
     }
 
     @Override
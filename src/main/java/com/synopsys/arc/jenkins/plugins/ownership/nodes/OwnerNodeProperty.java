@@ -35,10 +35,18 @@ import hudson.model.Node;
 import hudson.slaves.NodeProperty;
 import hudson.slaves.NodePropertyDescriptor;
 import hudson.slaves.SlaveComputer;
+import java.io.IOException;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.annotation.CheckForNull;
 import jenkins.model.Jenkins;
 import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.ownership.model.events.OwnershipChangeDispatcher;
+import org.jenkinsci.plugins.ownership.model.persistence.OwnershipPersistenceQueue;
+import org.jenkinsci.plugins.ownership.model.store.OwnershipStore;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.Ancestor;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.StaplerRequest;
@@ -51,6 +59,8 @@ import org.kohsuke.stapler.StaplerRequest;
  */
 public class OwnerNodeProperty extends NodeProperty<Node> 
     implements IOwnershipItem<NodeProperty> {
+    
+    private static final Logger LOGGER = Logger.getLogger(OwnerNodeProperty.class.getName());
 
     private OwnershipDescription ownership;
     private String nodeName; 
@@ -64,17 +74,70 @@ public class OwnerNodeProperty extends NodeProperty<Node>
          setNode(node);
          //FIXME: remove hack with owner
          this.nodeName = (node != null) ? node.getNodeName() : null;
-         this.ownership = (ownership != null) ? ownership : OwnershipDescription.DISABLED_DESCR;
+         this.ownership = (ownership != null) ? OwnershipDescription.intern(ownership) : OwnershipDescription.DISABLED_DESCR;
     }
     
     @Override
-    public OwnershipDescription getOwnership() {             
+    public OwnershipDescription getOwnership() {
+        if (nodeName != null) {
+            final OwnershipDescription stored = OwnershipStore.getActive().getNodeOwnership(nodeName);
+            if (stored != null) {
+                return stored;
+            }
+        }
         return ownership != null ? ownership : OwnershipDescription.DISABLED_DESCR;
     }
     
+    /**
+     * Gets the ownership defined in the property itself.
+     * Unlike {@link #getOwnership()}, the ownership store is not being checked.
+     * @return Ownership or null if it is not defined
+     * @since 0.6
+     */
+    @CheckForNull
+    @Restricted(NoExternalUse.class)
+    public OwnershipDescription getPropertyOwnership() {
+        return ownership;
+    }
+    
+    /**
+     * Sets the ownership description.
+     * The node is being persisted by {@link OwnershipPersistenceQueue}.
+     * @param descr Ownership description
+     */
     public void setOwnershipDescription(OwnershipDescription descr) {
-        ownership = descr;
-        getDescriptor().save();
+        final OwnershipStore store = OwnershipStore.getActive();
+        final Node n = getNode();
+        if (store.isExternal() && n != null) {
+            try {
+                store.setNodeOwnership(n, descr, true);
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Cannot save the ownership of node " + nodeName, ex);
+            }
+            return;
+        }
+        
+        final OwnershipDescription oldOwnership = getOwnership();
+        updateOwnership(descr);
+        if (nodeName != null) {
+            OwnershipChangeDispatcher.getInstance().nodeChanged(nodeName, oldOwnership, getOwnership());
+        }
+        
+        // Nodes are being stored in the global configuration
+        try {
+            OwnershipPersistenceQueue.getInstance().schedule(Jenkins.getInstance());
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Cannot save the ownership of node " + nodeName, ex);
+        }
+    }
+    
+    /**
+     * Updates the ownership without saving the configuration.
+     * @param descr Ownership description
+     */
+    @Restricted(NoExternalUse.class)
+    public void updateOwnership(@CheckForNull OwnershipDescription descr) {
+        ownership = OwnershipDescription.internNullable(descr);
     }
     
     @CheckForNull
@@ -1,7 +1,7 @@
-<!--
+/*
  * The MIT License
  *
- * Copyright 2013 Oleg Nenashev <nenashev@synopsys.com>, Synopsys Inc.
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
  *
  * Permission is hereby granted, free of charge, to any person obtaining a copy
  * of this software and associated documentation files (the "Software"), to deal
@@ -20,8 +20,31 @@
  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
- -->
-<?jelly escape-by-default='true'?>
-<j:jelly xmlns:j="jelly:core" xmlns:st="jelly:stapler" xmlns:d="jelly:define" xmlns:l="/lib/layout" xmlns:t="/lib/hudson" xmlns:f="/lib/form">
-  <p class="error">${it.causeDescription}</p>
-</j:jelly>
+ */
+
+package com.synopsys.arc.jenkins.plugins.ownership.nodes;
+
+import com.synopsys.arc.jenkins.plugins.ownership.security.rolestrategy.OwnershipDecisionCache;
+import hudson.Extension;
+import hudson.slaves.ComputerListener;
+import org.jenkinsci.plugins.ownership.model.index.OwnershipIndex;
+import org.jenkinsci.plugins.ownership.model.store.OwnershipStore;
+
+/**
+ * Tracks changes of the nodes configuration.
+ * Nodes may be added, removed, renamed or reconfigured via the Web UI, 
+ * hence the listener updates the ownership store, refreshes the nodes 
+ * ownership index and drops cached permission decisions.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Extension
+public class OwnershipComputerListener extends ComputerListener {
+
+    @Override
+    public void onConfigurationChange() {
+        OwnershipStore.getActive().onNodesChanged();
+        OwnershipIndex.getInstance().rebuildNodes();
+        OwnershipDecisionCache.getInstance().invalidateAll();
+    }
+}
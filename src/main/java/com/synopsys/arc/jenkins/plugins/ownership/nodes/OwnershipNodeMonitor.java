@@ -28,14 +28,21 @@ import hudson.Extension;
 import hudson.model.Computer;
 import hudson.node_monitors.AbstractNodeMonitorDescriptor;
 import hudson.node_monitors.NodeMonitor;
-import hudson.slaves.OfflineCause;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
 import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.ownership.model.nodes.OwnershipFleetMonitor;
 import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.export.Exported;
 import org.kohsuke.stapler.export.ExportedBean;
 
 /**
  * Implements monitoring of ownership.
+ * Since 0.6 the monitor takes the data from {@link OwnershipFleetMonitor}, 
+ * which calculates the ownership of all nodes once per monitoring cycle.
  * @author Oleg Nenashev <nenashev@synopsys.com>, Synopsys Inc.
  * @since 0.4
  */
@@ -53,8 +60,7 @@ public class OwnershipNodeMonitor extends NodeMonitor {
         
         @Override
         protected Data monitor(Computer c) throws IOException, InterruptedException {
-            OwnershipDescription ownership = ComputerOwnerHelper.getInstance().getOwnershipDescription(c);
-            return new Data(ownership);
+            return new Data(OwnershipFleetMonitor.getInstance().getOwnership(c));
         }      
 
         @Override
@@ -67,20 +73,45 @@ public class OwnershipNodeMonitor extends NodeMonitor {
             return new OwnershipNodeMonitor();
         }      
     }
+    
     /**
      * Immutable representation of the monitoring data.
+     * The data is not an offline cause since 0.6, the monitor never 
+     * takes nodes offline.
      */
     @ExportedBean  
-    public static class Data extends OfflineCause {
+    public static class Data {
+        @Nonnull
         private final OwnershipDescription ownershipDescription;
 
-        public Data(OwnershipDescription ownershipDescription) {
+        public Data(@Nonnull OwnershipDescription ownershipDescription) {
             this.ownershipDescription = ownershipDescription;
         }
 
+        @Nonnull
         public OwnershipDescription getOwnershipDescription() {
             return ownershipDescription;
         }
+        
+        @Exported
+        public boolean isOwnershipEnabled() {
+            return ownershipDescription.isOwnershipEnabled();
+        }
+        
+        @Exported
+        @CheckForNull
+        public String getPrimaryOwner() {
+            return ownershipDescription.isOwnershipEnabled() 
+                    ? ownershipDescription.getPrimaryOwnerId() : null;
+        }
+        
+        @Exported
+        @Nonnull
+        public List<String> getCoOwners() {
+            return ownershipDescription.isOwnershipEnabled() 
+                    ? new ArrayList<String>(ownershipDescription.getCoownersIds()) 
+                    : new ArrayList<String>();
+        }
                 
         @Override
         public String toString() {
@@ -33,9 +33,12 @@ import hudson.Extension;
 import hudson.model.Job;
 import hudson.model.Queue;
 import hudson.model.Run;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import org.kohsuke.stapler.DataBoundConstructor;
 
 /**
@@ -45,10 +48,34 @@ import org.kohsuke.stapler.DataBoundConstructor;
  */
 public class OwnersListJobRestriction extends JobRestriction {
     
+    /**
+     * Enables memoization of decisions for ownership descriptions.
+     */
+    private static final boolean ENABLE_DECISION_MEMO = !Boolean.getBoolean(
+            OwnersListJobRestriction.class.getName() + ".disableDecisionMemo");
+    
+    /**
+     * Maximum number of memoized decisions per restriction.
+     */
+    private static final int MAX_MEMO_SIZE = Integer.getInteger(
+            OwnersListJobRestriction.class.getName() + ".maxMemoSize", 1000);
+    
     private static final JobOwnerHelper helper = new JobOwnerHelper();
     private final List<UserSelector> usersList;
     private final boolean acceptsCoOwners;
-    transient private Set<String> usersMap = null;
+    
+    /**
+     * Immutable set of user IDs.
+     * The field is being initialized in the constructor and on deserialization.
+     */
+    transient private volatile Set<String> usersMap = null;
+    
+    /**
+     * Decisions for ownership descriptions.
+     * {@link OwnershipDescription}s are immutable, so ownership changes of 
+     * the job lead to new keys and the memo does not need to be invalidated.
+     */
+    transient private volatile Map<OwnershipDescription, Boolean> decisionsMemo;
 
     @DataBoundConstructor
     public OwnersListJobRestriction(List<UserSelector> usersList, boolean acceptsCoOwners) {
@@ -57,16 +84,27 @@ public class OwnersListJobRestriction extends JobRestriction {
         updateUsersMap();
     }
     
-    protected synchronized final void updateUsersMap() {
+    protected Object readResolve() {
+        updateUsersMap();
+        return this;
+    }
+    
+    protected final void updateUsersMap() {
         if (usersMap == null) {
             // Update users map
-            usersMap = new TreeSet<String>();
-            for (UserSelector selector : usersList) {
-                String userId = hudson.Util.fixEmptyAndTrim(selector.getSelectedUserId());
-                if (userId != null && !usersMap.contains(userId)) {
-                    usersMap.add(userId);
+            final Set<String> users = new HashSet<String>();
+            if (usersList != null) {
+                for (UserSelector selector : usersList) {
+                    String userId = hudson.Util.fixEmptyAndTrim(selector.getSelectedUserId());
+                    if (userId != null) {
+                        users.add(userId);
+                    }
                 }
             }
+            usersMap = Collections.unmodifiableSet(users);
+        }
+        if (decisionsMemo == null) {
+            decisionsMemo = new ConcurrentHashMap<OwnershipDescription, Boolean>();
         }
     }
 
@@ -100,18 +138,47 @@ public class OwnersListJobRestriction extends JobRestriction {
         if (!descr.isOwnershipEnabled()) {
             return false;
         }
+        if (!ENABLE_DECISION_MEMO) {
+            return evaluate(descr);
+        }
+        
+        updateUsersMap();
+        final Map<OwnershipDescription, Boolean> memo = decisionsMemo;
+        final Boolean cached = memo.get(descr);
+        if (cached != null) {
+            return cached;
+        }
         
+        final boolean res = evaluate(descr);
+        if (memo.size() >= MAX_MEMO_SIZE) {
+            memo.clear();
+        }
+        memo.put(descr, res);
+        return res;
+    }
+    
+    private boolean evaluate(OwnershipDescription descr) {
         updateUsersMap();
-        if (usersMap.contains(descr.getPrimaryOwnerId())) {
+        final Set<String> users = usersMap;
+        if (users.contains(descr.getPrimaryOwnerId())) {
             return true;
         }
         
         // Handle co-owners if required
         Set<String> itemCoOwners = descr.getCoownersIds();
-        if (acceptsCoOwners && !itemCoOwners.isEmpty()) {
-            for (String userID : usersMap) {
-                if (itemCoOwners.contains(userID)) {
-                    return true;
+        if (acceptsCoOwners && !itemCoOwners.isEmpty() && !users.isEmpty()) {
+            // Iterate over the smaller set
+            if (users.size() <= itemCoOwners.size()) {
+                for (String userID : users) {
+                    if (descr.isCoOwner(userID)) {
+                        return true;
+                    }
+                }
+            } else {
+                for (String coOwnerId : itemCoOwners) {
+                    if (users.contains(coOwnerId)) {
+                        return true;
+                    }
                 }
             }
         }
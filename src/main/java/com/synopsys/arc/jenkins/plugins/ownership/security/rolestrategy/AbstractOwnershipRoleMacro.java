@@ -23,11 +23,9 @@
  */
 package com.synopsys.arc.jenkins.plugins.ownership.security.rolestrategy;
 
-import com.synopsys.arc.jenkins.plugins.ownership.IOwnershipItem;
 import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
 import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
-import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerJobProperty;
-import com.synopsys.arc.jenkins.plugins.ownership.nodes.OwnerNodeProperty;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.NodeOwnerHelper;
 import com.synopsys.arc.jenkins.plugins.rolestrategy.Macro;
 import com.synopsys.arc.jenkins.plugins.rolestrategy.RoleMacroExtension;
 import com.synopsys.arc.jenkins.plugins.rolestrategy.RoleType;
@@ -38,6 +36,8 @@ import hudson.model.Job;
 import hudson.model.Node;
 import hudson.model.User;
 import hudson.security.AccessControlled;
+import javax.annotation.CheckForNull;
+import org.jenkinsci.plugins.ownership.util.users.UserCache;
 
 /**
  * An abstract class for {@link RoleMacroExtension}s provided by the ownership plugin.
@@ -61,31 +61,86 @@ abstract class AbstractOwnershipRoleMacro extends RoleMacroExtension {
         }
     }
     
+    /**
+     * Gets the ownership of the item.
+     * The ownership is being retrieved via helpers, so the active 
+     * {@link org.jenkinsci.plugins.ownership.model.store.OwnershipStore} is being taken into account.
+     * @param type Role type
+     * @param item Item to be checked
+     * @return Ownership description. Disabled description if the ownership is not applicable
+     */
     public static OwnershipDescription getOwnership(RoleType type, AccessControlled item) {
-        IOwnershipItem ownership = null;
         switch(type) {
             case Project:
                 if (item instanceof Job) { 
-                    Job prj = (Job)item;
-                    JobOwnerJobProperty prop = JobOwnerHelper.getOwnerProperty(prj);
-                    if (prop != null) {
-                        ownership = prop;
-                    }                 
+                    return JobOwnerHelper.Instance.getOwnershipDescription((Job<?, ?>)item);
                 }
                 break;
             case Slave:
                 if (item instanceof Computer) {
-                    Computer comp = (Computer)item;
-                    Node node = comp.getNode();
+                    Node node = ((Computer)item).getNode();
                     if (node != null) {
-                        ownership = node.getNodeProperties().get(OwnerNodeProperty.class);
+                        return NodeOwnerHelper.Instance.getOwnershipDescription(node);
                     }
                 }
                 break;
             default:
                 //do nothing => Ownership is disabled
         }
-        return ownership != null ? ownership.getOwnership() : OwnershipDescription.DISABLED_DESCR;
+        return OwnershipDescription.DISABLED_DESCR;
+    }
+    
+    /**
+     * Gets a key of the item for {@link OwnershipDecisionCache}.
+     * @param type Role type
+     * @param item Item to be checked
+     * @return Item key or null if the ownership is not applicable to the item
+     */
+    @CheckForNull
+    private static String getItemKey(RoleType type, AccessControlled item) {
+        switch(type) {
+            case Project:
+                // Matrix configurations share decisions with parents, which define their ownership
+                return (item instanceof Job) 
+                        ? OwnershipDecisionCache.getJobKey(JobOwnerHelper.getOwnershipSource((Job)item).getFullName()) 
+                        : null;
+            case Slave:
+                return (item instanceof Computer) 
+                        ? OwnershipDecisionCache.getNodeKey(((Computer)item).getName()) : null;
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Checks if the sid belongs to owners of the item.
+     * Decisions are being cached in {@link OwnershipDecisionCache}.
+     * @param sid Sid to be checked
+     * @param type Role type
+     * @param item Item to be checked
+     * @param macro Macro
+     * @param acceptCoowners Check if user belongs to co-owners
+     * @return true if the sid belongs to owners (and/or co-owners)
+     * @since 0.6
+     */
+    public static boolean hasPermission(@CheckForNull String sid, RoleType type, AccessControlled item, Macro macro, boolean acceptCoowners) {
+        if (sid == null) {
+            return false;
+        }
+        final String itemKey = getItemKey(type, item);
+        if (itemKey == null) { // Ownership is not applicable, no need to cache
+            return false;
+        }
+        
+        final OwnershipDecisionCache cache = OwnershipDecisionCache.getInstance();
+        final Boolean cached = cache.get(sid, itemKey, acceptCoowners);
+        if (cached != null) {
+            return cached;
+        }
+        
+        final boolean res = hasPermission(UserCache.getInstance().get(sid), type, item, macro, acceptCoowners);
+        cache.put(sid, itemKey, acceptCoowners, res);
+        return res;
     }
     
     public static boolean hasPermission(User user, RoleType type, AccessControlled item, Macro macro, boolean acceptCoowners) {
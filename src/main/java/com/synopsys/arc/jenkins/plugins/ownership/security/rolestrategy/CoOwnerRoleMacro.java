@@ -28,7 +28,6 @@ import static com.synopsys.arc.jenkins.plugins.ownership.security.rolestrategy.A
 import com.synopsys.arc.jenkins.plugins.rolestrategy.Macro;
 import com.synopsys.arc.jenkins.plugins.rolestrategy.RoleType;
 import hudson.Extension;
-import hudson.model.User;
 import hudson.security.AccessControlled;
 import hudson.security.Permission;
 
@@ -52,7 +51,6 @@ public class CoOwnerRoleMacro extends AbstractOwnershipRoleMacro {
 
     @Override
     public boolean hasPermission(String sid, Permission p, RoleType type, AccessControlled item, Macro macro) {    
-        User user = User.get(sid, false, null);              
-        return hasPermission(user, type, item, macro, true);
+        return hasPermission(sid, type, item, macro, true);
     }
 }
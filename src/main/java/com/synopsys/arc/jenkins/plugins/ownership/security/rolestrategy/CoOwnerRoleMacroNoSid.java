@@ -53,6 +53,6 @@ public class CoOwnerRoleMacroNoSid extends AbstractOwnershipRoleMacro{
     @Override
     public boolean hasPermission(String sid, Permission p, RoleType type, AccessControlled item, Macro macro) {    
         User user = User.current();              
-        return hasPermission(user, type, item, macro, true);
+        return user != null && hasPermission(user.getId(), type, item, macro, true);
     }
 }
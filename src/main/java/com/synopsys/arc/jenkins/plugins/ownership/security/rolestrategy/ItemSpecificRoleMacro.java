@@ -25,7 +25,6 @@ package com.synopsys.arc.jenkins.plugins.ownership.security.rolestrategy;
 
 import com.synopsys.arc.jenkins.plugins.ownership.Messages;
 import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
-import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerJobProperty;
 import com.synopsys.arc.jenkins.plugins.ownership.security.itemspecific.ItemSpecificSecurity;
 import com.synopsys.arc.jenkins.plugins.rolestrategy.Macro;
 import com.synopsys.arc.jenkins.plugins.rolestrategy.RoleType;
@@ -60,14 +59,9 @@ public class ItemSpecificRoleMacro extends AbstractOwnershipRoleMacro {
     @Override
     public boolean hasPermission(String sid, Permission p, RoleType type, AccessControlled item, Macro macro) {
         if (type == RoleType.Project && item instanceof Job) { 
-            Job prj = (Job)item;       
-            JobOwnerJobProperty prop = JobOwnerHelper.getOwnerProperty(prj);
-
-            if (prop != null) {
-                ItemSpecificSecurity sec = prop.getItemSpecificSecurity();
-                if (sec != null) {
-                    return sec.getPermissionsMatrix().hasPermission(sid, p);
-                }
+            ItemSpecificSecurity sec = JobOwnerHelper.getItemSpecificSecurity((Job<?, ?>)item);
+            if (sec != null) {
+                return sec.getPermissionsMatrix().hasPermission(sid, p);
             }
         }
         
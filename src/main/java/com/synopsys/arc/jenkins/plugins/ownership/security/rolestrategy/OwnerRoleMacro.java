@@ -27,7 +27,6 @@ import com.synopsys.arc.jenkins.plugins.ownership.Messages;
 import com.synopsys.arc.jenkins.plugins.rolestrategy.Macro;
 import com.synopsys.arc.jenkins.plugins.rolestrategy.RoleType;
 import hudson.Extension;
-import hudson.model.User;
 import hudson.security.AccessControlled;
 import hudson.security.Permission;
 
@@ -51,7 +50,6 @@ public class OwnerRoleMacro extends AbstractOwnershipRoleMacro {
 
     @Override
     public boolean hasPermission(String sid, Permission p, RoleType type, AccessControlled item, Macro macro) {    
-        User user = User.get(sid, false, null);              
-        return hasPermission(user, type, item, macro, false);
+        return hasPermission(sid, type, item, macro, false);
     }   
 }
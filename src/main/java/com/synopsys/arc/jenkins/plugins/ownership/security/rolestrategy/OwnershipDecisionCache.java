@@ -0,0 +1,235 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.synopsys.arc.jenkins.plugins.ownership.security.rolestrategy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Bounded cache of ownership-based permission decisions.
+ * Role-strategy evaluates macros for every ACL check, so the cache allows to 
+ * avoid repeated user and ownership lookups for the same (sid, item) pairs.
+ * <p>
+ * Entries are being invalidated on ownership changes. 
+ * They also expire after a short timeout, because user registrations may 
+ * change the decisions as well.
+ * <p>
+ * Decisions are being grouped by items, so lookups do not block each other 
+ * and the invalidation of an item does not scan the entire cache.
+ * If the cache overflows, it gets cleared completely.
+ * The class does not refer Role Strategy classes, so it can be safely invoked 
+ * when the plugin is not installed.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class OwnershipDecisionCache {
+    
+    /**
+     * Maximum number of cached decisions.
+     */
+    private static final int MAX_SIZE = Integer.getInteger(
+            OwnershipDecisionCache.class.getName() + ".maxSize", 10000);
+    
+    /**
+     * Lifetime of decisions in milliseconds.
+     */
+    private static final long EXPIRATION_MS = TimeUnit.SECONDS.toMillis(Integer.getInteger(
+            OwnershipDecisionCache.class.getName() + ".expirationSec", 60));
+    
+    private static final OwnershipDecisionCache INSTANCE = new OwnershipDecisionCache(MAX_SIZE, EXPIRATION_MS);
+    
+    private final int maxSize;
+    private final long expirationMs;
+    private final ConcurrentMap<String, ConcurrentMap<Key, Entry>> decisions = 
+            new ConcurrentHashMap<String, ConcurrentMap<Key, Entry>>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /*package*/ OwnershipDecisionCache(int maxSize, long expirationMs) {
+        this.maxSize = maxSize;
+        this.expirationMs = expirationMs;
+    }
+    
+    public static @Nonnull OwnershipDecisionCache getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Gets a job key for the cache.
+     * @param fullName Full name of the job
+     * @return Item key
+     */
+    public static @Nonnull String getJobKey(@Nonnull String fullName) {
+        return "job:" + fullName;
+    }
+    
+    /**
+     * Gets a node key for the cache.
+     * @param nodeName Name of the node
+     * @return Item key
+     */
+    public static @Nonnull String getNodeKey(@Nonnull String nodeName) {
+        return "node:" + nodeName;
+    }
+    
+    /**
+     * Gets the cached decision.
+     * @param sid Sid
+     * @param itemKey Key of the item
+     * @param acceptCoowners Indicates that co-owners are accepted
+     * @return Cached decision or null if it is not available
+     */
+    public @CheckForNull Boolean get(@Nonnull String sid, @Nonnull String itemKey, boolean acceptCoowners) {
+        final ConcurrentMap<Key, Entry> itemDecisions = decisions.get(itemKey);
+        final Key key = new Key(sid, acceptCoowners);
+        final Entry entry = itemDecisions != null ? itemDecisions.get(key) : null;
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.isExpired(expirationMs)) {
+            if (itemDecisions.remove(key, entry)) {
+                size.decrementAndGet();
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.decision;
+    }
+    
+    public void put(@Nonnull String sid, @Nonnull String itemKey, boolean acceptCoowners, boolean decision) {
+        if (size.get() >= maxSize) {
+            invalidateAll();
+        }
+        
+        ConcurrentMap<Key, Entry> itemDecisions = decisions.get(itemKey);
+        if (itemDecisions == null) {
+            final ConcurrentMap<Key, Entry> created = new ConcurrentHashMap<Key, Entry>(4);
+            itemDecisions = decisions.putIfAbsent(itemKey, created);
+            if (itemDecisions == null) {
+                itemDecisions = created;
+            }
+        }
+        if (itemDecisions.put(new Key(sid, acceptCoowners), new Entry(decision)) == null) {
+            size.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Drops all decisions for the specified item.
+     * @param itemKey Key of the item
+     */
+    public void invalidate(@Nonnull String itemKey) {
+        final ConcurrentMap<Key, Entry> removed = decisions.remove(itemKey);
+        if (removed != null) {
+            size.addAndGet(-removed.size());
+        }
+    }
+    
+    public void invalidateAll() {
+        decisions.clear();
+        size.set(0);
+    }
+    
+    /**
+     * Gets the approximate number of cached decisions.
+     * @return Number of decisions
+     */
+    public int size() {
+        return Math.max(size.get(), 0);
+    }
+    
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+    
+    /**
+     * Gets hit rate of the cache.
+     * @return Hit rate in the [0;1] range
+     */
+    public double getHitRate() {
+        final long h = hits.get();
+        final long total = h + misses.get();
+        return total != 0 ? (double)h / total : 0;
+    }
+    
+    /**
+     * Key of the decision within the item.
+     */
+    private static final class Key {
+        private final String sid;
+        private final boolean acceptCoowners;
+
+        Key(@Nonnull String sid, boolean acceptCoowners) {
+            this.sid = sid;
+            this.acceptCoowners = acceptCoowners;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return acceptCoowners == other.acceptCoowners && sid.equals(other.sid);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 31 * hash + sid.hashCode();
+            hash = 31 * hash + (acceptCoowners ? 1 : 0);
+            return hash;
+        }
+    }
+    
+    private static final class Entry {
+        private final boolean decision;
+        private final long timestamp;
+
+        Entry(boolean decision) {
+            this.decision = decision;
+            this.timestamp = System.currentTimeMillis();
+        }
+        
+        boolean isExpired(long expirationMs) {
+            return System.currentTimeMillis() - timestamp > expirationMs;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import hudson.model.User;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.ownership.util.users.UserCache;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 
@@ -46,12 +47,22 @@ public class HTMLFormatter {
     public static @CheckForNull String formatEmailURI(@Nonnull String userId) {
         String email = UserStringFormatter.formatEmail(userId);
         if (email != null) {
-            return "<a href=\"mailto://"+email+"\">&lt;"+email+"&gt;</a>";
+            return formatMailToLink(email);
         } else {
             return null;
         }          
     }
     
+    /**
+     * Formats a link for the already resolved e-mail.
+     * @param email E-mail
+     * @return E-mail link in the following format: &lt;user@doma.in&gt;
+     * @since 0.6
+     */
+    public static @Nonnull String formatMailToLink(@Nonnull String email) {
+        return "<a href=\"mailto://"+email+"\">&lt;"+email+"&gt;</a>";
+    }
+    
     public static @Nonnull String formatShortUserURI(@Nonnull String userId) {
         return formatUserURI(userId, false);
     }
@@ -61,7 +72,7 @@ public class HTMLFormatter {
     }
     
     public static @Nonnull String formatUserURI(@Nonnull String userId, boolean useLongFormat) {
-        User usr = User.get(userId, false, null);
+        User usr = UserCache.getInstance().get(userId);
         if (usr != null) {
             String userStr = useLongFormat 
                 ? usr.getDisplayName()
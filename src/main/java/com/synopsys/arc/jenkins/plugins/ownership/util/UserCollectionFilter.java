@@ -23,13 +23,12 @@
  */
 package com.synopsys.arc.jenkins.plugins.ownership.util;
 
-import com.synopsys.arc.jenkins.plugins.ownership.util.userFilters.UserComparator;
 import com.synopsys.arc.jenkins.plugins.ownership.util.userFilters.IUserFilter;
 import hudson.model.User;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.List;
 import javax.annotation.Nonnull;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
@@ -44,29 +43,97 @@ public class UserCollectionFilter {
 
     @Nonnull
     public static Collection<User> filterUsers(@Nonnull Collection<User> input, boolean enableSort, @Nonnull IUserFilter... filters) {
-        // Sort users
-        UserComparator comparator = new UserComparator();
-        LinkedList<User> userList = new LinkedList<User>(User.getAll());
-        if (enableSort) {
-            Collections.sort(userList, comparator);
+        return filterUsers(input, enableSort, 0, Integer.MAX_VALUE, filters);
+    }
+    
+    /**
+     * Filters users with paging support.
+     * Filters are being evaluated lazily: the evaluation stops once 
+     * the page is complete, and the remaining filters are skipped for 
+     * the user once one of them fails.
+     * @param input Users to be filtered
+     * @param enableSort Sort users by full names before filtering
+     * @param offset Number of matching users to be skipped
+     * @param limit Maximum number of users to be returned
+     * @param filters Filters to be applied. Put cheap filters first
+     * @return Matching users
+     * @since 0.6
+     */
+    @Nonnull
+    public static List<User> filterUsers(@Nonnull Iterable<User> input, boolean enableSort, 
+            int offset, int limit, @Nonnull IUserFilter... filters) {
+        final Iterable<User> users = enableSort ? sortUsers(input) : input;
+        final List<User> res = new ArrayList<User>();
+        if (limit <= 0) {
+            return res;
         }
         
-        // Prepare new list
-        Collection<User> res = new ArrayList<User>();
-        for (User user : userList) {
-            if (user == null) {
+        int toSkip = offset;
+        for (User user : users) {
+            if (user == null || !matches(user, filters)) {
+                continue;
+            }
+            if (toSkip > 0) {
+                toSkip--;
                 continue;
             }
             
-            boolean meets = true;
-            for (int i = 0; meets && i < filters.length; i++) {
-                meets = filters[i].filter(user);
+            res.add(user);
+            if (res.size() >= limit) {
+                break;
             }
-
-            if (meets) {
-                res.add(user);
+        }
+        return res;
+    }
+    
+    /**
+     * Sorts users by their full names.
+     * Full names are being retrieved once per user.
+     * @param input Users to be sorted
+     * @return Sorted list of users
+     * @since 0.6
+     */
+    @Nonnull
+    public static List<User> sortUsers(@Nonnull Iterable<User> input) {
+        final List<SortEntry> entries = new ArrayList<SortEntry>();
+        for (User user : input) {
+            if (user != null) {
+                entries.add(new SortEntry(user));
             }
         }
+        
+        final SortEntry[] sorted = entries.toArray(new SortEntry[entries.size()]);
+        Arrays.sort(sorted);
+        final List<User> res = new ArrayList<User>(sorted.length);
+        for (SortEntry entry : sorted) {
+            res.add(entry.user);
+        }
         return res;
     }
+    
+    private static boolean matches(@Nonnull User user, @Nonnull IUserFilter[] filters) {
+        for (IUserFilter filter : filters) {
+            if (!filter.filter(user)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Stores a precomputed sort key of the user.
+     */
+    private static final class SortEntry implements Comparable<SortEntry> {
+        private final String key;
+        private final User user;
+
+        SortEntry(@Nonnull User user) {
+            this.user = user;
+            this.key = user.getFullName();
+        }
+        
+        public int compareTo(SortEntry o) {
+            return key.compareTo(o.key);
+        }
+    }
 }
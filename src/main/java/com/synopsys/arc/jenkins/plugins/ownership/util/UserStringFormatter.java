@@ -23,10 +23,11 @@
  */
 package com.synopsys.arc.jenkins.plugins.ownership.util;
 
-import com.synopsys.arc.jenkins.plugins.ownership.OwnershipPlugin;
 import hudson.model.User;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import org.jenkinsci.plugins.ownership.util.mail.MailAddressCache;
+import org.jenkinsci.plugins.ownership.util.users.UserCache;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 
@@ -49,7 +50,7 @@ public class UserStringFormatter {
     }
     
     public static @Nonnull String format(@Nonnull String userId) {
-        return format(User.get(userId, false, null));
+        return format(UserCache.getInstance().get(userId));
     }
     
     public static @Nonnull String formatShort(@CheckForNull String userId) {
@@ -63,11 +64,17 @@ public class UserStringFormatter {
      * @since 0.2
      */
     public static  @CheckForNull String formatEmail(@Nonnull String userId) {
-        return formatEmail(User.get(userId, false, null));
+        return MailAddressCache.getInstance().get(userId);
     }
     
+    /**
+     * Formats e-mail of the user.
+     * E-mails are being resolved via {@link MailAddressCache}.
+     * @param user User
+     * @return e-mail
+     */
     public static @CheckForNull String formatEmail(@CheckForNull User user) {
         return (user != null && user != User.getUnknown()) 
-            ? OwnershipPlugin.getInstance().resolveEmail(user) : null;
+            ? MailAddressCache.getInstance().get(user) : null;
     }
 }
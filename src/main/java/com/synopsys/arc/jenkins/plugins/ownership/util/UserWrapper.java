@@ -24,7 +24,9 @@
 package com.synopsys.arc.jenkins.plugins.ownership.util;
 
 import hudson.model.User;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
+import org.jenkinsci.plugins.ownership.util.users.UserCache;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.NoExternalUse;
 
@@ -59,7 +61,7 @@ public class UserWrapper {
             this.macro = userMacro;
         } else {
             this.isUser = true;
-            this.user = User.get(userMacro, false, null);
+            this.user = UserCache.getInstance().get(userMacro);
             //   throw new UnsupportedOperationException("User macro must start with prefix '"+USER_MACRO_PREFIX+"'");
         }
 
@@ -83,6 +85,22 @@ public class UserWrapper {
         return isUser ? UserStringFormatter.format(user) : macro;
     }
 
+    /**
+     * Gets ID of the user, which is being referenced by the wrapper.
+     * Macros will be resolved in the current context.
+     * @return User ID or null if the user cannot be resolved
+     * @since 0.6
+     */
+    @CheckForNull
+    public String getEffectiveUserId() {
+        if (isUser) {
+            return user != null ? user.getId() : null;
+        } else {
+            User current = User.current();
+            return current != null ? current.getId() : null;
+        }
+    }
+
     public boolean meetsMacro(String userId) {
         // Handle macroses and get effective user's id
         String comparedId;
@@ -30,6 +30,9 @@ import com.synopsys.arc.jenkins.plugins.ownership.OwnershipPlugin;
 import com.synopsys.arc.jenkins.plugins.ownership.util.HTMLFormatter;
 import org.jenkinsci.plugins.ownership.util.mail.OwnershipMailHelper;
 import javax.annotation.Nonnull;
+import org.jenkinsci.plugins.ownership.util.ui.OwnershipRenderModel;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 /**
  * Formats layouts for UI interfaces.
@@ -69,6 +72,19 @@ public abstract class OwnershipLayoutFormatter<TObjectType> {
      */
     public abstract String formatContactAdminsLink(@Nonnull TObjectType item, IOwnershipHelper helper);
     
+    /**
+     * Gets a render model, which memoizes formatted data within the current request.
+     * @param item Item to be rendered
+     * @param helper Helper of the item
+     * @return Render model of the item
+     * @since 0.6
+     */
+    @Restricted(NoExternalUse.class)
+    public final @Nonnull OwnershipRenderModel<TObjectType> getRenderModel(
+            @Nonnull TObjectType item, @Nonnull IOwnershipHelper<TObjectType> helper) {
+        return OwnershipRenderModel.of(item, helper, this);
+    }
+    
     /**
      * Default user formatter for {@link OwnershipPlugin}.
      * @param <TObjectType> 
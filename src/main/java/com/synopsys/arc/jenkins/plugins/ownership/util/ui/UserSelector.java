@@ -25,21 +25,23 @@ package com.synopsys.arc.jenkins.plugins.ownership.util.ui;
 
 import hudson.Extension;
 import hudson.Util;
+import hudson.model.AutoCompletionCandidates;
 import hudson.model.Describable;
 import hudson.model.Descriptor;
 import hudson.model.User;
 import hudson.util.FormValidation;
 import java.io.Serializable;
 import javax.annotation.CheckForNull;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.ownership.util.users.UserIndex;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.QueryParameter;
 
 /**
  * Describable Item, which allows to configure user.
- * Features: validation
+ * Features: validation, autocompletion
  * @author Oleg Nenashev <nenashev@synopsys.com>, Synopsys Inc.
  */
-//TODO: Autocompletion
 public class UserSelector implements Describable<UserSelector>, Serializable {
     
     /**ID of the user*/
@@ -80,11 +82,32 @@ public class UserSelector implements Describable<UserSelector>, Serializable {
     public static final DescriptorImpl DESCRIPTOR = new DescriptorImpl();
     public static class DescriptorImpl extends Descriptor<UserSelector> {
         
+        /**
+         * Maximum number of suggestions for the autocompletion.
+         */
+        private static final int MAX_AUTOCOMPLETION_CANDIDATES = Integer.getInteger(
+                UserSelector.class.getName() + ".maxAutoCompletionCandidates", 20);
+        
         @Override
         public String getDisplayName() {
             return "N/A";
         }
         
+        /**
+         * Suggests users by prefixes of IDs or full names.
+         * @param value Entered text
+         * @return Top matching user IDs
+         * @since 0.6
+         */
+        public AutoCompletionCandidates doAutoCompleteSelectedUserId(@QueryParameter String value) {
+            Jenkins.getInstance().checkPermission(Jenkins.READ);
+            final AutoCompletionCandidates candidates = new AutoCompletionCandidates();
+            for (String userId : UserIndex.getInstance().search(value, MAX_AUTOCOMPLETION_CANDIDATES)) {
+                candidates.add(userId);
+            }
+            return candidates;
+        }
+        
         public FormValidation doCheckSelectedUserId(@QueryParameter String selectedUserId) {
             selectedUserId = Util.fixEmptyAndTrim(selectedUserId);
             if (selectedUserId == null) {
@@ -27,10 +27,7 @@ import hudson.model.User;
 import hudson.security.AccessControlled;
 import hudson.security.Permission;
 import javax.annotation.Nonnull;
-import org.acegisecurity.Authentication;
-import org.acegisecurity.context.SecurityContext;
-import org.acegisecurity.context.SecurityContextHolder;
-import org.acegisecurity.userdetails.UsernameNotFoundException;
+import org.jenkinsci.plugins.ownership.util.users.PossibleOwnersResolver;
 
 /**
  * Filters user according to access rights to specified item.
@@ -54,22 +51,7 @@ public class AccessRightsFilter implements IUserFilter {
    
     @Override
     public boolean filter(@Nonnull User user) {        
-        boolean permissionCheckResult = false;
-        
-        // Impersonate to check the permission
-        SecurityContext initialContext = null;
-        try {
-            Authentication auth = user.impersonate();
-            initialContext = hudson.security.ACL.impersonate(auth);
-            permissionCheckResult = item.hasPermission(permission);
-        } catch (UsernameNotFoundException ex) {
-            return false; // Ignore non-existent users like "unknown"
-        } finally {
-            if (initialContext != null) {
-                SecurityContextHolder.setContext(initialContext);
-            }
-        }
-        
-        return  permissionCheckResult;
+        // Authentications are being cached, the caller's context is restored after the check
+        return PossibleOwnersResolver.hasPermission(user, item.getACL(), permission);
     } 
 }
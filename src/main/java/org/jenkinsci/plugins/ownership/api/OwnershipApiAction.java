@@ -0,0 +1,737 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.api;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipPlugin;
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.NodeOwnerHelper;
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Computer;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Job;
+import hudson.model.Node;
+import hudson.model.RootAction;
+import hudson.security.AccessControlled;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+import org.apache.commons.io.IOUtils;
+import org.jenkinsci.plugins.ownership.model.audit.OwnershipAuditEntry;
+import org.jenkinsci.plugins.ownership.model.audit.OwnershipAuditLog;
+import org.jenkinsci.plugins.ownership.model.events.OwnershipChangeDispatcher;
+import org.jenkinsci.plugins.ownership.model.index.OwnershipIndex;
+import org.jenkinsci.plugins.ownership.model.nodes.OwnerCapacityTracker;
+import org.jenkinsci.plugins.ownership.model.nodes.OwnershipFleetMonitor;
+import org.jenkinsci.plugins.ownership.model.nodes.OwnershipFleetSnapshot;
+import org.jenkinsci.plugins.ownership.model.reassign.OwnershipReassignment;
+import org.jenkinsci.plugins.ownership.model.reassign.OwnershipReassignmentEngine;
+import org.jenkinsci.plugins.ownership.model.reassign.ReassignmentScope;
+import org.jenkinsci.plugins.ownership.model.store.JournalOwnershipStore;
+import org.jenkinsci.plugins.ownership.model.store.OwnershipStore;
+import org.jenkinsci.plugins.ownership.model.store.OwnershipStoreMigration;
+import org.jenkinsci.plugins.ownership.model.traversal.OwnershipTraversal;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+/**
+ * REST API for bulk ownership operations.
+ * <p>
+ * <code>POST ${rootURL}/ownership-api/apply</code> accepts a batch of changes:
+ * <pre>
+ * {"dryRun": false, "changes": [
+ *    {"type": "job", "name": "folder/job", "ownershipEnabled": true, 
+ *     "primaryOwner": "user", "coOwners": ["user2", "group"]},
+ *    {"type": "node", "name": "node1", "ownershipEnabled": false}
+ * ]}
+ * </pre>
+ * All changes are being validated before the modification. 
+ * If any change is invalid, nothing gets applied.
+ * Multiple changes of the same item are being coalesced (the last one wins), 
+ * node changes are being persisted by a single configuration save.
+ * <p>
+ * <code>GET ${rootURL}/ownership-api/export</code> streams ownership info 
+ * of all items, which are visible to the current user.
+ * <p>
+ * <code>POST ${rootURL}/ownership-api/reassign</code> replaces an owner in all items:
+ * <pre>
+ * {"from": "user", "to": "user2", "dryRun": true, 
+ *  "jobs": true, "nodes": true, "folders": ["folder"], "views": ["view"]}
+ * </pre>
+ * The reassignment runs in background, 
+ * <code>GET ${rootURL}/ownership-api/reassignStatus</code> reports the progress.
+ * <p>
+ * <code>POST ${rootURL}/ownership-api/migrateStore?store=journal</code> copies
+ * the ownership from item properties to the specified {@link OwnershipStore}.
+ * <p>
+ * <code>GET ${rootURL}/ownership-api/audit?user=&amp;item=&amp;since=&amp;until=&amp;limit=</code> 
+ * returns recent entries of {@link OwnershipAuditLog}.
+ * <p>
+ * <code>GET ${rootURL}/ownership-api/folder?name=&amp;user=&amp;coOwners=</code> 
+ * reports the number of owned jobs within the folder and jobs of the user there.
+ * <p>
+ * <code>GET ${rootURL}/ownership-api/nodes?since=</code> returns 
+ * the {@link OwnershipFleetSnapshot} of all nodes. 
+ * Clients may pass the version of the last received snapshot in order to 
+ * skip the data transfer if nothing has changed.
+ * <p>
+ * <code>GET ${rootURL}/ownership-api/capacity?coOwners=</code> reports 
+ * busy, idle and offline executors per owner, see {@link OwnerCapacityTracker}.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public class OwnershipApiAction implements RootAction {
+    
+    private static final Logger LOGGER = Logger.getLogger(OwnershipApiAction.class.getName());
+    
+    static final String TYPE_JOB = "job";
+    static final String TYPE_NODE = "node";
+    
+    static final String STATUS_OK = "ok";
+    static final String STATUS_VALID = "valid";
+    static final String STATUS_ERROR = "error";
+    static final String STATUS_SKIPPED = "skipped";
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Ownership API";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "ownership-api";
+    }
+    
+    @RequirePOST
+    public void doApply(StaplerRequest req, StaplerResponse rsp) throws IOException, ServletException {
+        final Jenkins jenkins = Jenkins.getInstance();
+        jenkins.checkPermission(Jenkins.READ);
+        
+        final JSONObject payload;
+        try {
+            payload = JSONObject.fromObject(IOUtils.toString(req.getReader()));
+        } catch (JSONException ex) {
+            rsp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Malformed JSON: " + ex.getMessage());
+            return;
+        }
+        final boolean dryRun = payload.optBoolean("dryRun", false);
+        final JSONArray changesJSON = payload.optJSONArray("changes");
+        if (changesJSON == null) {
+            rsp.sendError(HttpServletResponse.SC_BAD_REQUEST, "'changes' array is required");
+            return;
+        }
+        
+        // Parse and validate all changes
+        final List<Change> changes = new ArrayList<Change>(changesJSON.size());
+        boolean valid = true;
+        for (Object obj : changesJSON) {
+            final Change change = Change.parse(obj);
+            valid &= change.error == null;
+            changes.add(change);
+        }
+        
+        // Apply changes. Last change of the item wins
+        if (valid && !dryRun) {
+            final Map<String, Change> toApply = new LinkedHashMap<String, Change>();
+            for (Change change : changes) {
+                final Change previous = toApply.put(change.getKey(), change);
+                if (previous != null) {
+                    previous.status = STATUS_SKIPPED;
+                    previous.message = "Overridden by a later change";
+                }
+            }
+            apply(toApply.values());
+        }
+        
+        final JSONArray results = new JSONArray();
+        for (Change change : changes) {
+            results.add(change.toResult(valid, dryRun));
+        }
+        final JSONObject response = new JSONObject();
+        response.put("applied", valid && !dryRun);
+        response.put("results", results);
+        writeJSON(rsp, valid ? HttpServletResponse.SC_OK : HttpServletResponse.SC_BAD_REQUEST, response);
+    }
+    
+    private static void apply(@Nonnull Iterable<Change> changes) {
+        boolean nodesModified = false;
+        for (Change change : changes) {
+            try {
+                if (change.job != null) {
+                    JobOwnerHelper.setOwnership(change.job, change.ownership);
+                } else if (change.node != null) {
+                    // Nodes are stored in the global config, it is saved once below
+                    NodeOwnerHelper.setOwnership(change.node, change.ownership, false);
+                    nodesModified = true;
+                }
+                change.status = STATUS_OK;
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Cannot set ownership of " + change.getKey(), ex);
+                change.status = STATUS_ERROR;
+                change.message = ex.getMessage();
+            }
+        }
+        
+        if (nodesModified) {
+            try {
+                Jenkins.getInstance().save();
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Cannot save the ownership of nodes", ex);
+                for (Change change : changes) {
+                    if (change.node != null && STATUS_OK.equals(change.status)) {
+                        change.status = STATUS_ERROR;
+                        change.message = "Cannot save the configuration: " + ex.getMessage();
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reassigns the ownership from one sid to another.
+     * Dry-run requests return the list of affected items immediately.
+     * @param req Request
+     * @param rsp Response
+     * @throws IOException Output error
+     */
+    @RequirePOST
+    public void doReassign(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        Jenkins.getInstance().checkPermission(Jenkins.READ);
+        
+        final JSONObject payload;
+        try {
+            payload = JSONObject.fromObject(IOUtils.toString(req.getReader()));
+        } catch (JSONException ex) {
+            rsp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Malformed JSON: " + ex.getMessage());
+            return;
+        }
+        final String from = Util.fixEmptyAndTrim(payload.optString("from", null));
+        final String to = Util.fixEmptyAndTrim(payload.optString("to", null));
+        if (from == null || to == null) {
+            rsp.sendError(HttpServletResponse.SC_BAD_REQUEST, "'from' and 'to' are required");
+            return;
+        }
+        final ReassignmentScope scope = new ReassignmentScope(
+                payload.optBoolean("jobs", true), payload.optBoolean("nodes", true),
+                toStringList(payload.optJSONArray("folders")), toStringList(payload.optJSONArray("views")));
+        
+        final OwnershipReassignment reassignment = OwnershipReassignment.plan(
+                from, to, scope, payload.optBoolean("dryRun", false));
+        if (!reassignment.isDryRun()) {
+            try {
+                OwnershipReassignmentEngine.getInstance().start(reassignment);
+            } catch (IllegalStateException ex) {
+                rsp.sendError(HttpServletResponse.SC_CONFLICT, ex.getMessage());
+                return;
+            }
+        }
+        writeJSON(rsp, HttpServletResponse.SC_OK, toJSON(reassignment, reassignment.isDryRun()));
+    }
+    
+    /**
+     * Reports the progress of the current reassignment.
+     * Only the initiator and administrators may see it.
+     * @param req Request
+     * @param rsp Response
+     * @throws IOException Output error
+     */
+    public void doReassignStatus(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        Jenkins.getInstance().checkPermission(Jenkins.READ);
+        final OwnershipReassignment current = OwnershipReassignmentEngine.getInstance().getCurrent();
+        if (current == null) {
+            writeJSON(rsp, HttpServletResponse.SC_OK, new JSONObject().element("state", "NONE"));
+            return;
+        }
+        // Items and failures of the reassignment are visible to its initiator only
+        final String userId = OwnershipChangeDispatcher.getCurrentUserId();
+        if (!Jenkins.getInstance().hasPermission(Jenkins.ADMINISTER) 
+                && (userId == null || !userId.equals(current.getInitiator()))) {
+            rsp.sendError(HttpServletResponse.SC_FORBIDDEN, "The reassignment has been started by another user");
+            return;
+        }
+        writeJSON(rsp, HttpServletResponse.SC_OK, toJSON(current, false));
+    }
+    
+    @Nonnull
+    private static JSONObject toJSON(@Nonnull OwnershipReassignment reassignment, boolean includeItems) {
+        final JSONObject res = new JSONObject();
+        res.put("from", reassignment.getFromSid());
+        res.put("to", reassignment.getToSid());
+        res.put("dryRun", reassignment.isDryRun());
+        res.put("state", reassignment.getState().toString());
+        res.put("total", reassignment.getTotal());
+        res.put("processed", reassignment.getProcessed());
+        res.put("failed", reassignment.getFailed());
+        res.put("skipped", reassignment.getSkipped());
+        if (includeItems) {
+            res.put("jobs", JSONArray.fromObject(reassignment.getJobNames()));
+            res.put("nodes", JSONArray.fromObject(reassignment.getNodeNames()));
+        }
+        if (reassignment.getFailed() > 0) {
+            res.put("failures", JSONObject.fromObject(reassignment.getFailures()));
+        }
+        return res;
+    }
+    
+    @CheckForNull
+    private static List<String> toStringList(@CheckForNull JSONArray array) {
+        if (array == null) {
+            return null;
+        }
+        final List<String> res = new ArrayList<String>(array.size());
+        for (Object obj : array) {
+            if (obj != null) {
+                res.add(obj.toString());
+            }
+        }
+        return res;
+    }
+    
+    /**
+     * Migrates the ownership from item properties to the specified store.
+     * @param req Request
+     * @param rsp Response
+     * @throws IOException Output error
+     */
+    @RequirePOST
+    public void doMigrateStore(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        Jenkins.getInstance().checkPermission(Jenkins.ADMINISTER);
+        
+        final String storeId = Util.fixEmptyAndTrim(req.getParameter("store"));
+        final OwnershipStore store = OwnershipStore.find(storeId != null ? storeId : JournalOwnershipStore.ID);
+        if (store == null || !store.isExternal()) {
+            rsp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported store: " + storeId);
+            return;
+        }
+        
+        final OwnershipStoreMigration migration = new OwnershipStoreMigration(store).run();
+        final JSONObject res = new JSONObject();
+        res.put("store", store.getId());
+        res.put("active", store == OwnershipStore.getActive());
+        res.put("migratedJobs", migration.getMigratedJobs());
+        res.put("migratedNodes", migration.getMigratedNodes());
+        res.put("unchanged", migration.getUnchanged());
+        res.put("failures", JSONArray.fromObject(migration.getFailures()));
+        writeJSON(rsp, migration.getFailures().isEmpty() 
+                ? HttpServletResponse.SC_OK : HttpServletResponse.SC_INTERNAL_SERVER_ERROR, res);
+    }
+    
+    /**
+     * Streams recent entries of the audit log.
+     * @param req Request
+     * @param rsp Response
+     * @throws IOException Output error
+     */
+    public void doAudit(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        Jenkins.getInstance().checkPermission(Jenkins.ADMINISTER);
+        final List<OwnershipAuditEntry> entries = OwnershipAuditLog.getInstance().query(
+                OwnershipAuditLog.Filter.fromRequest(req), OwnershipAuditLog.getLimit(req));
+        
+        rsp.setContentType("application/json;charset=UTF-8");
+        final PrintWriter w = rsp.getWriter();
+        w.write("{\"entries\":[");
+        boolean first = true;
+        for (OwnershipAuditEntry entry : entries) {
+            if (!first) {
+                w.write(',');
+            }
+            first = false;
+            final JSONObject json = new JSONObject();
+            json.put("timestamp", entry.getTimestamp());
+            json.put("user", entry.getUserId());
+            json.put("type", entry.getItemType());
+            json.put("item", entry.getItemName());
+            json.put("action", entry.getAction());
+            json.put("old", entry.getOldValue());
+            json.put("new", entry.getNewValue());
+            w.write(json.toString());
+        }
+        w.write("]}");
+        w.flush();
+    }
+    
+    /**
+     * Reports ownership statistics of a folder.
+     * The number of owned jobs is being taken from counters of the ownership index.
+     * If the <code>user</code> parameter is specified, jobs of the user within 
+     * the folder will be listed as well.
+     * @param req Request
+     * @param rsp Response
+     * @throws IOException Output error
+     */
+    public void doFolder(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        final Jenkins jenkins = Jenkins.getInstance();
+        jenkins.checkPermission(Jenkins.READ);
+        
+        final String name = Util.fixEmptyAndTrim(req.getParameter("name"));
+        final Item item = name != null ? jenkins.getItemByFullName(name) : null;
+        if (!OwnershipTraversal.isFolder(item)) {
+            rsp.sendError(HttpServletResponse.SC_NOT_FOUND, "Folder not found: " + name);
+            return;
+        }
+        
+        final JSONObject res = new JSONObject();
+        res.put("name", item.getFullName());
+        res.put("ownedJobs", OwnershipTraversal.countOwnedJobs((ItemGroup<?>) item));
+        
+        final String userId = Util.fixEmptyAndTrim(req.getParameter("user"));
+        if (userId != null) {
+            final boolean includeCoowned = !"false".equals(req.getParameter("coOwners"));
+            final JSONArray jobs = new JSONArray();
+            final OwnershipIndex index = OwnershipIndex.getInstance();
+            if (index.isReady()) {
+                for (String jobName : index.getOwnedJobsWithin(item.getFullName(), userId, includeCoowned)) {
+                    final Job<?, ?> job = jenkins.getItemByFullName(jobName, Job.class);
+                    if (job != null) { // Hidden jobs are being skipped
+                        jobs.add(jobName);
+                    }
+                }
+            } else {
+                for (Job<?, ?> job : OwnershipTraversal.jobsWithin((ItemGroup<?>) item)) {
+                    if (OwnershipTraversal.isOwnedBy(OwnershipTraversal.getOwnership(job), userId, includeCoowned)) {
+                        jobs.add(job.getFullName());
+                    }
+                }
+            }
+            res.put("user", userId);
+            res.put("userJobs", jobs);
+        }
+        writeJSON(rsp, HttpServletResponse.SC_OK, res);
+    }
+    
+    /**
+     * Reports the ownership snapshot of all nodes.
+     * If the <code>since</code> parameter equals to the current version of the snapshot,
+     * only the version will be returned.
+     * Only nodes visible to the current user are being reported.
+     * @param req Request
+     * @param rsp Response
+     * @throws IOException Output error
+     */
+    public void doNodes(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        final Jenkins jenkins = Jenkins.getInstance();
+        jenkins.checkPermission(Jenkins.READ);
+        
+        final OwnershipFleetSnapshot snapshot = OwnershipFleetMonitor.getInstance().getSnapshot();
+        final JSONObject res = new JSONObject();
+        res.put("version", snapshot.getVersion());
+        res.put("timestamp", snapshot.getTimestamp());
+        
+        final String since = Util.fixEmptyAndTrim(req.getParameter("since"));
+        if (since != null) {
+            try {
+                if (Long.parseLong(since) == snapshot.getVersion()) {
+                    res.put("changed", false);
+                    writeJSON(rsp, HttpServletResponse.SC_OK, res);
+                    return;
+                }
+            } catch (NumberFormatException ex) {
+                rsp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Wrong version: " + since);
+                return;
+            }
+        }
+        res.put("changed", true);
+        
+        final Set<String> visibleNodes = new HashSet<String>();
+        final JSONObject nodes = new JSONObject();
+        for (Map.Entry<String, OwnershipDescription> entry : snapshot.getNodes().entrySet()) {
+            final Computer c = jenkins.getComputer(entry.getKey());
+            if (c != null && !c.hasPermission(Computer.READ)) {
+                continue;
+            }
+            visibleNodes.add(entry.getKey());
+            nodes.put(entry.getKey(), toJSON(entry.getValue()));
+        }
+        res.put("nodes", nodes);
+        res.put("owners", toJSON(snapshot.getOwnedNodes(), visibleNodes));
+        res.put("coOwners", toJSON(snapshot.getCoOwnedNodes(), visibleNodes));
+        writeJSON(rsp, HttpServletResponse.SC_OK, res);
+    }
+    
+    /**
+     * Reports busy, idle and offline executors of nodes grouped by owners.
+     * Co-owners are being included if the <code>coOwners</code> parameter is true.
+     * Only nodes visible to the current user are being counted.
+     * @param req Request
+     * @param rsp Response
+     * @throws IOException Output error
+     */
+    public void doCapacity(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        Jenkins.getInstance().checkPermission(Jenkins.READ);
+        final boolean includeCoOwners = "true".equals(req.getParameter("coOwners"));
+        
+        final JSONObject owners = new JSONObject();
+        for (OwnerCapacityTracker.OwnerCapacity capacity : 
+                OwnerCapacityTracker.getInstance().getCapacity(includeCoOwners, true)) {
+            final JSONObject entry = new JSONObject();
+            entry.put("nodes", capacity.getNodes());
+            entry.put("executors", capacity.getExecutors());
+            entry.put("busy", capacity.getBusy());
+            entry.put("idle", capacity.getIdle());
+            entry.put("offline", capacity.getOffline());
+            owners.put(capacity.getOwnerId(), entry);
+        }
+        writeJSON(rsp, HttpServletResponse.SC_OK, new JSONObject()
+                .element("coOwners", includeCoOwners).element("owners", owners));
+    }
+    
+    @Nonnull
+    private static JSONObject toJSON(@Nonnull Map<String, ? extends Set<String>> userNodes, 
+            @Nonnull Set<String> visibleNodes) {
+        final JSONObject res = new JSONObject();
+        for (Map.Entry<String, ? extends Set<String>> entry : userNodes.entrySet()) {
+            final JSONArray names = new JSONArray();
+            for (String nodeName : entry.getValue()) {
+                if (visibleNodes.contains(nodeName)) {
+                    names.add(nodeName);
+                }
+            }
+            if (!names.isEmpty()) {
+                res.put(entry.getKey(), names);
+            }
+        }
+        return res;
+    }
+    
+    /**
+     * Streams ownership info of jobs and nodes.
+     * Only items visible to the current user are being exported.
+     * @param req Request
+     * @param rsp Response
+     * @throws IOException Output error
+     */
+    public void doExport(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        final Jenkins jenkins = Jenkins.getInstance();
+        jenkins.checkPermission(Jenkins.READ);
+        
+        rsp.setContentType("application/json;charset=UTF-8");
+        final PrintWriter w = rsp.getWriter();
+        w.write("{\"jobs\":[");
+        boolean first = true;
+        for (Job<?, ?> job : jenkins.getAllItems(Job.class)) {
+            if (JobOwnerHelper.getOwnershipSource(job) != job) {
+                continue; // e.g. matrix configurations, parents are exported
+            }
+            if (!job.hasPermission(Item.READ)) {
+                continue;
+            }
+            first = writeEntry(w, first, job.getFullName(), 
+                    JobOwnerHelper.Instance.getOwnershipDescription(job));
+        }
+        
+        w.write("],\"nodes\":[");
+        first = true;
+        for (Node node : getAllNodes(jenkins)) {
+            final Computer c = node.toComputer();
+            if (c != null && !c.hasPermission(Computer.READ)) {
+                continue;
+            }
+            first = writeEntry(w, first, node.getNodeName(), 
+                    NodeOwnerHelper.Instance.getOwnershipDescription(node));
+        }
+        w.write("]}");
+        w.flush();
+    }
+    
+    private static boolean writeEntry(@Nonnull PrintWriter w, boolean first, 
+            @Nonnull String name, @Nonnull OwnershipDescription descr) {
+        if (!first) {
+            w.write(',');
+        }
+        final JSONObject entry = toJSON(descr);
+        entry.put("name", name);
+        w.write(entry.toString());
+        return false;
+    }
+    
+    @Nonnull
+    /*package*/ static JSONObject toJSON(@Nonnull OwnershipDescription descr) {
+        final JSONObject res = new JSONObject();
+        res.put("ownershipEnabled", descr.isOwnershipEnabled());
+        if (descr.isOwnershipEnabled()) {
+            res.put("primaryOwner", descr.getPrimaryOwnerId());
+            res.put("coOwners", JSONArray.fromObject(descr.getCoownersIds()));
+        }
+        return res;
+    }
+    
+    @Nonnull
+    private static List<Node> getAllNodes(@Nonnull Jenkins jenkins) {
+        final List<Node> nodes = new ArrayList<Node>(jenkins.getNodes().size() + 1);
+        nodes.add(jenkins);
+        nodes.addAll(jenkins.getNodes());
+        return nodes;
+    }
+    
+    @CheckForNull
+    private static Node getNode(@Nonnull String name) {
+        final Jenkins jenkins = Jenkins.getInstance();
+        return name.length() == 0 ? jenkins : jenkins.getNode(name);
+    }
+    
+    private static void writeJSON(@Nonnull StaplerResponse rsp, int status, @Nonnull JSONObject json) 
+            throws IOException {
+        rsp.setStatus(status);
+        rsp.setContentType("application/json;charset=UTF-8");
+        final PrintWriter w = rsp.getWriter();
+        w.write(json.toString());
+        w.flush();
+    }
+    
+    /**
+     * A single change in the batch.
+     */
+    private static final class Change {
+        @CheckForNull String type;
+        @CheckForNull String name;
+        @CheckForNull OwnershipDescription ownership;
+        @CheckForNull Job<?, ?> job;
+        @CheckForNull Node node;
+        @CheckForNull String error;
+        @CheckForNull String status;
+        @CheckForNull String message;
+        
+        @Nonnull
+        static Change parse(@CheckForNull Object obj) {
+            final Change change = new Change();
+            if (!(obj instanceof JSONObject)) {
+                change.error = "Change should be a JSON object";
+                return change;
+            }
+            
+            final JSONObject json = (JSONObject) obj;
+            change.type = json.optString("type", null);
+            change.name = json.optString("name", null);
+            if (change.name == null) {
+                change.error = "'name' is not specified";
+                return change;
+            }
+            
+            // Resolve the item and check permissions
+            if (TYPE_JOB.equals(change.type)) {
+                change.job = Jenkins.getInstance().getItemByFullName(change.name, Job.class);
+                if (change.job == null || !change.job.hasPermission(Item.READ)) {
+                    change.error = "Job does not exist";
+                    return change;
+                }
+                if (!change.job.hasPermission(OwnershipPlugin.MANAGE_ITEMS_OWNERSHIP)) {
+                    change.error = "Missing permission: " + OwnershipPlugin.MANAGE_ITEMS_OWNERSHIP.getId();
+                    return change;
+                }
+            } else if (TYPE_NODE.equals(change.type)) {
+                change.node = getNode(change.name);
+                final Computer c = change.node != null ? change.node.toComputer() : null;
+                final AccessControlled target = c != null ? c : Jenkins.getInstance();
+                if (change.node == null || !target.hasPermission(Computer.READ)) {
+                    change.error = "Node does not exist";
+                    return change;
+                }
+                if (!target.hasPermission(OwnershipPlugin.MANAGE_SLAVES_OWNERSHIP)) {
+                    change.error = "Missing permission: " + OwnershipPlugin.MANAGE_SLAVES_OWNERSHIP.getId();
+                    return change;
+                }
+            } else {
+                change.error = "Unsupported type: " + change.type;
+                return change;
+            }
+            
+            // Parse ownership
+            final boolean enabled = json.optBoolean("ownershipEnabled", true);
+            final String primaryOwner = Util.fixEmptyAndTrim(json.optString("primaryOwner", null));
+            final List<String> coOwners = new ArrayList<String>();
+            final JSONArray coOwnersJSON = json.optJSONArray("coOwners");
+            if (coOwnersJSON != null) {
+                for (Object coOwner : coOwnersJSON) {
+                    final String coOwnerId = coOwner != null ? Util.fixEmptyAndTrim(coOwner.toString()) : null;
+                    if (coOwnerId != null) {
+                        coOwners.add(coOwnerId);
+                    }
+                }
+            }
+            if (enabled && primaryOwner == null) {
+                change.error = "'primaryOwner' is required if the ownership is enabled";
+                return change;
+            }
+            
+            change.ownership = enabled 
+                    ? OwnershipDescription.intern(new OwnershipDescription(true, primaryOwner, coOwners))
+                    : OwnershipDescription.DISABLED_DESCR;
+            return change;
+        }
+        
+        @Nonnull
+        String getKey() {
+            return type + ":" + name;
+        }
+        
+        @Nonnull
+        JSONObject toResult(boolean batchValid, boolean dryRun) {
+            final JSONObject res = new JSONObject();
+            res.put("type", type);
+            res.put("name", name);
+            if (error != null) {
+                res.put("status", STATUS_ERROR);
+                res.put("message", error);
+            } else if (!batchValid) {
+                res.put("status", STATUS_SKIPPED);
+                res.put("message", "The batch contains invalid changes");
+            } else if (dryRun) {
+                res.put("status", STATUS_VALID);
+            } else {
+                res.put("status", status);
+                if (message != null) {
+                    res.put("message", message);
+                }
+            }
+            return res;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.management;
+
+import com.synopsys.arc.jenkins.plugins.ownership.security.rolestrategy.OwnershipDecisionCache;
+import hudson.Extension;
+import hudson.model.ManagementLink;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.ownership.model.audit.OwnershipAuditEntry;
+import org.jenkinsci.plugins.ownership.model.audit.OwnershipAuditLog;
+import org.jenkinsci.plugins.ownership.model.index.OwnershipIndex;
+import org.jenkinsci.plugins.ownership.model.nodes.OwnerCapacityTracker;
+import org.jenkinsci.plugins.ownership.model.persistence.OwnershipPersistenceQueue;
+import org.jenkinsci.plugins.ownership.model.store.OwnershipStore;
+import org.jenkinsci.plugins.ownership.util.mail.MailAddressCache;
+import org.jenkinsci.plugins.ownership.util.users.AuthenticationCache;
+import org.jenkinsci.plugins.ownership.util.users.UserCache;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.Stapler;
+import org.kohsuke.stapler.StaplerRequest;
+
+/**
+ * Status page of the ownership index, caches and the persistence.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public class OwnershipStatusLink extends ManagementLink {
+
+    @Override
+    public String getIconFileName() {
+        return "user.png";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "ownership-status";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return Messages.OwnershipStatusLink_DisplayName();
+    }
+
+    @Override
+    public String getDescription() {
+        return Messages.OwnershipStatusLink_Description();
+    }
+    
+    public @Nonnull OwnershipIndex getIndex() {
+        return OwnershipIndex.getInstance();
+    }
+    
+    public @Nonnull OwnershipStore getStore() {
+        return OwnershipStore.getActive();
+    }
+    
+    public int getPendingWrites() {
+        return OwnershipPersistenceQueue.getInstance().getPendingCount();
+    }
+    
+    /**
+     * Gets recent audit entries for the <code>audit</code> page.
+     * Filters are being taken from the current request.
+     * @return Entries sorted from the newest one
+     */
+    @Nonnull
+    public List<OwnershipAuditEntry> getAuditEntries() {
+        Jenkins.getInstance().checkPermission(Jenkins.ADMINISTER);
+        final StaplerRequest req = Stapler.getCurrentRequest();
+        return OwnershipAuditLog.getInstance().query(
+                OwnershipAuditLog.Filter.fromRequest(req), OwnershipAuditLog.getLimit(req));
+    }
+    
+    /**
+     * Gets node capacity of owners for the <code>capacity</code> page.
+     * Co-owners are being included if the <code>coOwners</code> parameter is true.
+     * @return Capacity of owners sorted by owner IDs
+     */
+    @Nonnull
+    public List<OwnerCapacityTracker.OwnerCapacity> getCapacity() {
+        Jenkins.getInstance().checkPermission(Jenkins.ADMINISTER);
+        final StaplerRequest req = Stapler.getCurrentRequest();
+        final boolean includeCoOwners = req != null && "true".equals(req.getParameter("coOwners"));
+        return OwnerCapacityTracker.getInstance().getCapacity(includeCoOwners, false);
+    }
+    
+    public @Nonnull List<CacheStats> getCaches() {
+        final List<CacheStats> res = new ArrayList<CacheStats>();
+        final UserCache users = UserCache.getInstance();
+        res.add(new CacheStats("Users", users.size(), users.getHits(), users.getMisses(), users.getHitRate()));
+        final AuthenticationCache auth = AuthenticationCache.getInstance();
+        res.add(new CacheStats("Authentications", auth.size(), auth.getHits(), auth.getMisses(), auth.getHitRate()));
+        final MailAddressCache mails = MailAddressCache.getInstance();
+        res.add(new CacheStats("E-mail addresses", mails.size(), mails.getHits(), mails.getMisses(), mails.getHitRate()));
+        final OwnershipDecisionCache decisions = OwnershipDecisionCache.getInstance();
+        res.add(new CacheStats("Role macro decisions", decisions.size(), decisions.getHits(), decisions.getMisses(), decisions.getHitRate()));
+        return res;
+    }
+    
+    /**
+     * Statistics of a single cache.
+     */
+    public static class CacheStats {
+        private final String name;
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final double hitRate;
+
+        CacheStats(String name, int size, long hits, long misses, double hitRate) {
+            this.name = name;
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.hitRate = hitRate;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+        
+        public String getHitRatePercent() {
+            return String.format("%.1f%%", hitRate * 100);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.audit;
+
+import java.util.Date;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import net.sf.json.JSONObject;
+
+/**
+ * Single record of {@link OwnershipAuditLog}.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+public class OwnershipAuditEntry {
+    
+    public static final String ACTION_OWNERSHIP = "ownership";
+    public static final String ACTION_ITEM_SPECIFIC_SECURITY = "itemSpecificSecurity";
+    
+    private final long timestamp;
+    private final String userId;
+    private final String itemType;
+    private final String itemName;
+    private final String action;
+    private final String oldValue;
+    private final String newValue;
+
+    public OwnershipAuditEntry(long timestamp, @CheckForNull String userId, 
+            @Nonnull String itemType, @Nonnull String itemName, @Nonnull String action,
+            @CheckForNull String oldValue, @CheckForNull String newValue) {
+        this.timestamp = timestamp;
+        this.userId = userId;
+        this.itemType = itemType;
+        this.itemName = itemName;
+        this.action = action;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public @Nonnull Date getDate() {
+        return new Date(timestamp);
+    }
+
+    /**
+     * Gets ID of the user, who has performed the change.
+     * @return User ID or null for system changes
+     */
+    public @CheckForNull String getUserId() {
+        return userId;
+    }
+
+    public @Nonnull String getItemType() {
+        return itemType;
+    }
+
+    public @Nonnull String getItemName() {
+        return itemName;
+    }
+
+    public @Nonnull String getAction() {
+        return action;
+    }
+
+    public @CheckForNull String getOldValue() {
+        return oldValue;
+    }
+
+    public @CheckForNull String getNewValue() {
+        return newValue;
+    }
+    
+    @Nonnull
+    /*package*/ JSONObject toJSON() {
+        final JSONObject res = new JSONObject();
+        res.put("ts", timestamp);
+        res.put("user", userId);
+        res.put("type", itemType);
+        res.put("item", itemName);
+        res.put("action", action);
+        res.put("old", oldValue);
+        res.put("new", newValue);
+        return res;
+    }
+    
+    @Nonnull
+    /*package*/ static OwnershipAuditEntry fromJSON(@Nonnull JSONObject json) {
+        return new OwnershipAuditEntry(json.getLong("ts"), json.optString("user", null), 
+                json.getString("type"), json.getString("item"), json.getString("action"),
+                json.optString("old", null), json.optString("new", null));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.audit;
+
+import hudson.Extension;
+import java.util.Locale;
+import org.jenkinsci.plugins.ownership.model.events.OwnershipChangeEvent;
+import org.jenkinsci.plugins.ownership.model.events.OwnershipChangeListener;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Records ownership changes to {@link OwnershipAuditLog}.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Extension
+@Restricted(NoExternalUse.class)
+public class OwnershipAuditListener extends OwnershipChangeListener {
+
+    @Override
+    public void onChanged(OwnershipChangeEvent event) {
+        OwnershipAuditLog.getInstance().record(new OwnershipAuditEntry(event.getTimestamp(), 
+                event.getUserId(), event.getItemType().toString().toLowerCase(Locale.ENGLISH), 
+                event.getItemName(), OwnershipAuditEntry.ACTION_OWNERSHIP, 
+                event.getOldOwnership().toString(), event.getNewOwnership().toString()));
+    }
+}
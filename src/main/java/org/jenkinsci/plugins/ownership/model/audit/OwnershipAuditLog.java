@@ -0,0 +1,393 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.audit;
+
+import hudson.Util;
+import hudson.util.DaemonThreadFactory;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.StaplerRequest;
+
+/**
+ * Append-only audit log of ownership changes.
+ * <p>
+ * Entries are being written by a background thread in batches, so the
+ * request threads do not wait for the disk. Each batch is written by a single
+ * buffered write without fsync. The log is being stored as JSON lines in
+ * <code>${JENKINS_HOME}/logs/ownership-audit</code>, files are being rotated 
+ * once they exceed the size limit, and only a limited number of files is kept.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class OwnershipAuditLog {
+    
+    private static final Logger LOGGER = Logger.getLogger(OwnershipAuditLog.class.getName());
+    
+    static final String LOG_FILE = "audit.log";
+    
+    /**
+     * Maximum size of a single file (in bytes).
+     */
+    private static final long MAX_FILE_SIZE = Long.getLong(
+            OwnershipAuditLog.class.getName() + ".maxFileSize", 10 * 1024 * 1024);
+    
+    /**
+     * Maximum number of files including the current one.
+     */
+    private static final int MAX_FILES = Integer.getInteger(
+            OwnershipAuditLog.class.getName() + ".maxFiles", 5);
+    
+    /**
+     * Delay between the record and the write (in milliseconds).
+     */
+    private static final long FLUSH_DELAY_MS = Long.getLong(
+            OwnershipAuditLog.class.getName() + ".flushDelayMs", 1000);
+    
+    /**
+     * Maximum number of entries, which can be requested by a single query.
+     */
+    public static final int MAX_QUERY_SIZE = 10000;
+    
+    /**
+     * Number of attempts to read the log without the file lock.
+     * Attempts are being repeated if the files get rotated during the read.
+     */
+    private static final int QUERY_ATTEMPTS = 3;
+    
+    private static final OwnershipAuditLog INSTANCE = new OwnershipAuditLog();
+    
+    private final LinkedBlockingQueue<OwnershipAuditEntry> queue = new LinkedBlockingQueue<OwnershipAuditEntry>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Object fileLock = new Object();
+    
+    /**
+     * Number of rotations, modified under the file lock.
+     */
+    private volatile int rotations;
+    private final ScheduledExecutorService executor;
+    
+    private final Runnable flushTask = new Runnable() {
+        public void run() {
+            flushScheduled.set(false);
+            flush();
+        }
+    };
+
+    private OwnershipAuditLog() {
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            private final ThreadFactory delegate = new DaemonThreadFactory();
+            public Thread newThread(Runnable r) {
+                Thread t = delegate.newThread(r);
+                t.setName("Ownership audit log writer");
+                return t;
+            }
+        });
+    }
+    
+    public static @Nonnull OwnershipAuditLog getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Records the entry.
+     * The entry is being written asynchronously.
+     * @param entry Entry to be recorded
+     */
+    public void record(@Nonnull OwnershipAuditEntry entry) {
+        queue.add(entry);
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(flushTask, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Writes all pending entries in the calling thread.
+     */
+    public void flush() {
+        synchronized (fileLock) {
+            final List<OwnershipAuditEntry> batch = new ArrayList<OwnershipAuditEntry>();
+            queue.drainTo(batch);
+            if (batch.isEmpty()) {
+                return;
+            }
+            
+            final File dir = getLogDir();
+            final File file = new File(dir, LOG_FILE);
+            try {
+                if (!dir.isDirectory() && !dir.mkdirs()) {
+                    throw new IOException("Cannot create the directory " + dir);
+                }
+                final Writer w = new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(file, true), "UTF-8"));
+                try {
+                    for (OwnershipAuditEntry entry : batch) {
+                        w.write(entry.toJSON().toString());
+                        w.write('\n');
+                    }
+                } finally {
+                    w.close();
+                }
+                
+                if (file.length() > MAX_FILE_SIZE) {
+                    rotate(dir);
+                }
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Cannot write " + batch.size() + " ownership audit entries to " + file, ex);
+            }
+        }
+    }
+    
+    // Should be invoked under the file lock
+    private void rotate(@Nonnull File dir) throws IOException {
+        final File oldest = getFile(dir, MAX_FILES - 1);
+        if (oldest.exists() && !oldest.delete()) {
+            throw new IOException("Cannot delete " + oldest);
+        }
+        for (int i = MAX_FILES - 2; i >= 0; i--) {
+            final File f = getFile(dir, i);
+            if (f.exists() && !f.renameTo(getFile(dir, i + 1))) {
+                throw new IOException("Cannot rotate " + f);
+            }
+        }
+        rotations++;
+    }
+    
+    /**
+     * Gets the most recent entries.
+     * Files are being read from the newest one, older files are not being read
+     * once the limit is reached. Only the requested number of entries is being
+     * kept in memory.
+     * @param filter Filter to be applied
+     * @param limit Maximum number of entries
+     * @return Entries sorted from the newest to the oldest one
+     */
+    @Nonnull
+    public List<OwnershipAuditEntry> query(@Nonnull Filter filter, int limit) {
+        flush(); // Include the recent changes
+        
+        // Files are being read without the lock, so writers are not blocked by big reads.
+        // If the log gets rotated in the meantime, the result may be inconsistent
+        for (int attempt = 0; attempt < QUERY_ATTEMPTS; attempt++) {
+            final int initialRotations = rotations;
+            final List<OwnershipAuditEntry> res = read(filter, limit);
+            if (rotations == initialRotations) {
+                return res;
+            }
+        }
+        synchronized (fileLock) {
+            return read(filter, limit);
+        }
+    }
+    
+    @Nonnull
+    private List<OwnershipAuditEntry> read(@Nonnull Filter filter, int limit) {
+        final List<OwnershipAuditEntry> res = new ArrayList<OwnershipAuditEntry>();
+        final File dir = getLogDir();
+        for (int i = 0; i < MAX_FILES && res.size() < limit; i++) {
+            final File file = getFile(dir, i);
+            if (!file.exists()) {
+                break;
+            }
+            if (file.lastModified() < filter.since) {
+                break; // This file and older ones do not contain matching entries
+            }
+
+            try {
+                final ArrayDeque<OwnershipAuditEntry> tail = readTail(file, filter, limit - res.size());
+                final Iterator<OwnershipAuditEntry> it = tail.descendingIterator();
+                while (it.hasNext()) {
+                    res.add(it.next());
+                }
+            } catch (FileNotFoundException ex) {
+                break; // Has been removed by the rotation
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Cannot read the ownership audit log " + file, ex);
+            }
+        }
+        return res;
+    }
+    
+    /**
+     * Reads the last matching entries of the file.
+     */
+    @Nonnull
+    private static ArrayDeque<OwnershipAuditEntry> readTail(@Nonnull File file, 
+            @Nonnull Filter filter, int limit) throws IOException {
+        final ArrayDeque<OwnershipAuditEntry> tail = new ArrayDeque<OwnershipAuditEntry>(Math.min(limit, 1024) + 1);
+        final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() == 0) {
+                    continue;
+                }
+                final OwnershipAuditEntry entry;
+                try {
+                    entry = OwnershipAuditEntry.fromJSON(JSONObject.fromObject(line));
+                } catch (JSONException ex) {
+                    continue; // Broken record or the record being written
+                }
+                if (filter.matches(entry)) {
+                    tail.addLast(entry);
+                    if (tail.size() > limit) {
+                        tail.removeFirst();
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return tail;
+    }
+    
+    /**
+     * Gets the number of requested entries from the <code>limit</code> parameter.
+     * @param req Request
+     * @return Limit in the [1; {@link #MAX_QUERY_SIZE}] range. 100 by default
+     */
+    public static int getLimit(@Nonnull StaplerRequest req) {
+        final String limit = Util.fixEmptyAndTrim(req.getParameter("limit"));
+        try {
+            return limit != null ? Math.max(1, Math.min(Integer.parseInt(limit), MAX_QUERY_SIZE)) : 100;
+        } catch (NumberFormatException ex) {
+            return 100;
+        }
+    }
+    
+    @Nonnull
+    private static File getFile(@Nonnull File dir, int index) {
+        return new File(dir, index == 0 ? LOG_FILE : LOG_FILE + "." + index);
+    }
+    
+    @Nonnull
+    private static File getLogDir() {
+        final String dir = System.getProperty(OwnershipAuditLog.class.getName() + ".dir");
+        return dir != null ? new File(dir) : new File(Jenkins.getInstance().getRootDir(), "logs/ownership-audit");
+    }
+    
+    /**
+     * Filter for audit log queries.
+     */
+    public static class Filter {
+        @CheckForNull 
+        private final String userId;
+        @CheckForNull 
+        private final String item;
+        private final long since;
+        private final long until;
+
+        /**
+         * Constructor.
+         * @param userId User, who has performed changes. Null - all users
+         * @param item Substring of the item name. Null - all items
+         * @param since Minimal timestamp. Use 0 to disable the filter
+         * @param until Maximal timestamp. Use {@link Long#MAX_VALUE} to disable the filter
+         */
+        public Filter(@CheckForNull String userId, @CheckForNull String item, long since, long until) {
+            this.userId = userId;
+            this.item = item;
+            this.since = since;
+            this.until = until;
+        }
+        
+        /**
+         * Creates the filter from request parameters.
+         * Supported parameters: <code>user</code>, <code>item</code>, 
+         * <code>since</code> and <code>until</code>. Time is being specified 
+         * as milliseconds or in the <code>yyyy-MM-dd[ HH:mm]</code> format.
+         * @param req Request
+         * @return Filter
+         */
+        @Nonnull
+        public static Filter fromRequest(@Nonnull StaplerRequest req) {
+            final Long since = parseTime(req.getParameter("since"));
+            final Long until = parseTime(req.getParameter("until"));
+            return new Filter(Util.fixEmptyAndTrim(req.getParameter("user")), 
+                    Util.fixEmptyAndTrim(req.getParameter("item")),
+                    since != null ? since : 0, until != null ? until : Long.MAX_VALUE);
+        }
+        
+        @CheckForNull
+        private static Long parseTime(@CheckForNull String value) {
+            final String str = Util.fixEmptyAndTrim(value);
+            if (str == null) {
+                return null;
+            }
+            try {
+                return Long.parseLong(str);
+            } catch (NumberFormatException ex) {
+                // Try dates
+            }
+            for (String format : new String[] {"yyyy-MM-dd HH:mm", "yyyy-MM-dd"}) {
+                try {
+                    return new SimpleDateFormat(format).parse(str).getTime();
+                } catch (ParseException ex) {
+                    // Try next
+                }
+            }
+            return null;
+        }
+        
+        public boolean matches(@Nonnull OwnershipAuditEntry entry) {
+            if (entry.getTimestamp() < since || entry.getTimestamp() > until) {
+                return false;
+            }
+            if (userId != null && !userId.equals(entry.getUserId())) {
+                return false;
+            }
+            return item == null || entry.getItemName().contains(item);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.events;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import com.synopsys.arc.jenkins.plugins.ownership.security.rolestrategy.OwnershipDecisionCache;
+import hudson.security.ACL;
+import hudson.util.DaemonThreadFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.acegisecurity.Authentication;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
+import org.jenkinsci.plugins.ownership.model.index.OwnershipIndex;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Single dispatch point for ownership changes.
+ * <p>
+ * Internal structures ({@link OwnershipIndex}, {@link OwnershipDecisionCache})
+ * are being updated synchronously, so the change is immediately visible.
+ * {@link OwnershipChangeListener}s are being notified asynchronously: events
+ * are being collected for a short period and then delivered as a batch.
+ * No events are being fired until the ownership index is built on startup.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class OwnershipChangeDispatcher {
+    
+    private static final Logger LOGGER = Logger.getLogger(OwnershipChangeDispatcher.class.getName());
+    
+    /**
+     * Period, during which events are being collected into a batch (in milliseconds).
+     */
+    private static final long BATCH_DELAY_MS = Long.getLong(
+            OwnershipChangeDispatcher.class.getName() + ".batchDelayMs", 200);
+    
+    /**
+     * Maximum number of events in a single batch.
+     */
+    private static final int MAX_BATCH_SIZE = Integer.getInteger(
+            OwnershipChangeDispatcher.class.getName() + ".maxBatchSize", 1000);
+    
+    private static final OwnershipChangeDispatcher INSTANCE = new OwnershipChangeDispatcher();
+    
+    private final LinkedBlockingQueue<OwnershipChangeEvent> queue = new LinkedBlockingQueue<OwnershipChangeEvent>();
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService executor;
+    
+    /**
+     * Serializes deliveries, so listeners receive events in the order of changes.
+     */
+    private final Object deliveryLock = new Object();
+    
+    private final Runnable dispatchTask = new Runnable() {
+        public void run() {
+            dispatchScheduled.set(false);
+            dispatch();
+        }
+    };
+
+    private OwnershipChangeDispatcher() {
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            private final ThreadFactory delegate = new DaemonThreadFactory();
+            public Thread newThread(Runnable r) {
+                Thread t = delegate.newThread(r);
+                t.setName("Ownership change dispatcher");
+                return t;
+            }
+        });
+    }
+    
+    public static @Nonnull OwnershipChangeDispatcher getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Handles the change of the job's ownership.
+     * @param fullName Full name of the job
+     * @param oldOwnership Previous ownership. Null if it was not defined
+     * @param newOwnership New ownership. Null if it has been dropped
+     */
+    public void jobChanged(@Nonnull String fullName, 
+            @CheckForNull OwnershipDescription oldOwnership, @CheckForNull OwnershipDescription newOwnership) {
+        OwnershipIndex.getInstance().updateJob(fullName, newOwnership);
+        OwnershipDecisionCache.getInstance().invalidate(OwnershipDecisionCache.getJobKey(fullName));
+        fire(OwnershipChangeEvent.ItemType.JOB, fullName, oldOwnership, newOwnership);
+    }
+    
+    /**
+     * Handles the change of the node's ownership.
+     * @param nodeName Name of the node
+     * @param oldOwnership Previous ownership. Null if it was not defined
+     * @param newOwnership New ownership. Null if it has been dropped
+     */
+    public void nodeChanged(@Nonnull String nodeName, 
+            @CheckForNull OwnershipDescription oldOwnership, @CheckForNull OwnershipDescription newOwnership) {
+        OwnershipIndex.getInstance().updateNode(nodeName, newOwnership);
+        OwnershipDecisionCache.getInstance().invalidate(OwnershipDecisionCache.getNodeKey(nodeName));
+        fire(OwnershipChangeEvent.ItemType.NODE, nodeName, oldOwnership, newOwnership);
+    }
+    
+    private void fire(@Nonnull OwnershipChangeEvent.ItemType type, @Nonnull String itemName, 
+            @CheckForNull OwnershipDescription oldOwnership, @CheckForNull OwnershipDescription newOwnership) {
+        if (!OwnershipIndex.getInstance().isReady()) {
+            return; // Items are being loaded
+        }
+        final OwnershipDescription oldDescr = oldOwnership != null ? oldOwnership : OwnershipDescription.DISABLED_DESCR;
+        final OwnershipDescription newDescr = newOwnership != null ? newOwnership : OwnershipDescription.DISABLED_DESCR;
+        if (oldDescr.equals(newDescr)) {
+            return;
+        }
+        
+        queue.add(new OwnershipChangeEvent(type, itemName, oldDescr, newDescr, 
+                getCurrentUserId(), System.currentTimeMillis()));
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            executor.schedule(dispatchTask, BATCH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Gets number of events, which have not been delivered yet.
+     * @return Number of events
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+    
+    /**
+     * Delivers all pending events in the calling thread.
+     */
+    public void flush() {
+        while (!queue.isEmpty()) {
+            dispatch();
+        }
+    }
+    
+    private void dispatch() {
+        synchronized (deliveryLock) {
+            final List<OwnershipChangeEvent> batch = new ArrayList<OwnershipChangeEvent>();
+            queue.drainTo(batch, MAX_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                return;
+            }
+            deliver(Collections.unmodifiableList(batch));
+        }
+        
+        // Process the rest without waiting
+        if (!queue.isEmpty() && dispatchScheduled.compareAndSet(false, true)) {
+            executor.submit(dispatchTask);
+        }
+    }
+    
+    private void deliver(@Nonnull List<OwnershipChangeEvent> batch) {
+        final Jenkins j = Jenkins.getInstance();
+        if (j == null) {
+            return; // Shutdown
+        }
+        
+        final SecurityContext initialContext = ACL.impersonate(ACL.SYSTEM);
+        try {
+            for (OwnershipChangeListener listener : OwnershipChangeListener.all()) {
+                try {
+                    listener.onChanged(batch);
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Ownership change listener " + listener + " failed", ex);
+                }
+            }
+        } finally {
+            SecurityContextHolder.setContext(initialContext);
+        }
+    }
+    
+    /**
+     * Gets ID of the user, who performs the change.
+     * @return User ID or null if the change is being performed by the system
+     */
+    @CheckForNull
+    public static String getCurrentUserId() {
+        final Authentication auth = Jenkins.getAuthentication();
+        if (auth == null || ACL.SYSTEM.getName().equals(auth.getName())) {
+            return null;
+        }
+        return auth.getName();
+    }
+}
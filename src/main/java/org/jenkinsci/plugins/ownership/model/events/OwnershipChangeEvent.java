@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.events;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Describes a change of the item's ownership.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+public class OwnershipChangeEvent {
+    
+    public static enum ItemType {
+        JOB,
+        NODE
+    }
+    
+    private final ItemType itemType;
+    private final String itemName;
+    private final OwnershipDescription oldOwnership;
+    private final OwnershipDescription newOwnership;
+    private final String userId;
+    private final long timestamp;
+
+    public OwnershipChangeEvent(@Nonnull ItemType itemType, @Nonnull String itemName, 
+            @CheckForNull OwnershipDescription oldOwnership, @CheckForNull OwnershipDescription newOwnership, 
+            @CheckForNull String userId, long timestamp) {
+        this.itemType = itemType;
+        this.itemName = itemName;
+        this.oldOwnership = oldOwnership != null ? oldOwnership : OwnershipDescription.DISABLED_DESCR;
+        this.newOwnership = newOwnership != null ? newOwnership : OwnershipDescription.DISABLED_DESCR;
+        this.userId = userId;
+        this.timestamp = timestamp;
+    }
+
+    public @Nonnull ItemType getItemType() {
+        return itemType;
+    }
+
+    /**
+     * Gets name of the modified item.
+     * @return Full name of the job or name of the node
+     */
+    public @Nonnull String getItemName() {
+        return itemName;
+    }
+
+    public @Nonnull OwnershipDescription getOldOwnership() {
+        return oldOwnership;
+    }
+
+    public @Nonnull OwnershipDescription getNewOwnership() {
+        return newOwnership;
+    }
+
+    /**
+     * Gets ID of the user, who has initiated the change.
+     * @return User ID or null if the change has been performed by the system
+     */
+    public @CheckForNull String getUserId() {
+        return userId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return itemType + " " + itemName + ": " + oldOwnership + " => " + newOwnership;
+    }
+}
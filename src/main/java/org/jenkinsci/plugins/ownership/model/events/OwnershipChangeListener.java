@@ -0,0 +1,67 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.events;
+
+import hudson.ExtensionList;
+import hudson.ExtensionPoint;
+import java.util.List;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+
+/**
+ * Receives notifications about ownership changes.
+ * <p>
+ * Events are being delivered asynchronously by {@link OwnershipChangeDispatcher}
+ * in the order of changes. Changes, which happen within a short period 
+ * (e.g. bulk operations), are being delivered as a single batch.
+ * Listeners are being invoked as {@link hudson.security.ACL#SYSTEM}.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+public abstract class OwnershipChangeListener implements ExtensionPoint {
+    
+    /**
+     * Handles a batch of changes.
+     * By default, invokes {@link #onChanged(OwnershipChangeEvent)} for each event.
+     * @param events Events in the order of changes
+     */
+    public void onChanged(@Nonnull List<OwnershipChangeEvent> events) {
+        for (OwnershipChangeEvent event : events) {
+            onChanged(event);
+        }
+    }
+    
+    /**
+     * Handles a single change.
+     * @param event Change event
+     */
+    public void onChanged(@Nonnull OwnershipChangeEvent event) {
+        // Do nothing by default
+    }
+    
+    @Nonnull
+    public static ExtensionList<OwnershipChangeListener> all() {
+        return Jenkins.getInstance().getExtensionList(OwnershipChangeListener.class);
+    }
+}
@@ -0,0 +1,720 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.ownership.model.index;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.NodeOwnerHelper;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Job;
+import hudson.model.Node;
+import hudson.util.DaemonThreadFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * In-memory inverted index of the ownership info.
+ * The index maps user IDs (and other sids) to the items they own, so
+ * "what does this user own" queries do not require a scan of all items.
+ * Jobs are referenced by their full names, nodes - by node names.
+ * Jobs within other jobs (e.g. matrix configurations) are not being indexed, 
+ * they take the ownership from their parents.
+ * <p>
+ * The index is updated by ownership setters and listeners.
+ * The initial build happens on startup after loading of jobs, big instances are
+ * being processed in parallel.
+ * Until {@link #isReady()} returns true, callers should fall back to direct lookups.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+public class OwnershipIndex {
+    
+    private static final Logger LOGGER = Logger.getLogger(OwnershipIndex.class.getName());
+    private static final OwnershipIndex INSTANCE = new OwnershipIndex();
+    
+    /**
+     * Maximum number of threads, which build the index.
+     */
+    private static final int BUILD_THREADS = Integer.getInteger(
+            OwnershipIndex.class.getName() + ".buildThreads", 
+            Math.min(4, Runtime.getRuntime().availableProcessors()));
+    
+    /**
+     * Number of jobs to be indexed by a single task.
+     * Smaller instances are being indexed in the calling thread.
+     */
+    private static final int BUILD_CHUNK_SIZE = Integer.getInteger(
+            OwnershipIndex.class.getName() + ".buildChunkSize", 500);
+    
+    private final ItemIndex jobs = new ItemIndex();
+    private final ItemIndex nodes = new ItemIndex();
+    private volatile boolean ready = false;
+    private volatile long lastBuildTimestamp;
+    private volatile long lastBuildDuration = -1;
+
+    /*package*/ OwnershipIndex() {
+    }
+    
+    public static @Nonnull OwnershipIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Checks if the index has been fully built.
+     * @return true if the index contains info about all items.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * Gets the time of the last full build.
+     * @return Timestamp in milliseconds. 0 if the index has not been built
+     */
+    public long getLastBuildTimestamp() {
+        return lastBuildTimestamp;
+    }
+    
+    /**
+     * Gets the duration of the last full build.
+     * @return Duration in milliseconds. -1 if the index has not been built
+     */
+    public long getLastBuildDuration() {
+        return lastBuildDuration;
+    }
+    
+    /**
+     * Builds the index once jobs are loaded.
+     * Until the build completes, the index is not ready.
+     */
+    @Restricted(NoExternalUse.class)
+    @Initializer(after = InitMilestone.JOB_LOADED)
+    public static void buildOnStartup() {
+        INSTANCE.rebuild();
+    }
+    
+    /**
+     * Updates the ownership info of the job.
+     * @param fullName Full name of the job
+     * @param descr Ownership description. Use null to drop the ownership info
+     */
+    public void updateJob(@Nonnull String fullName, @CheckForNull OwnershipDescription descr) {
+        jobs.update(fullName, descr);
+    }
+    
+    public void removeJob(@Nonnull String fullName) {
+        jobs.update(fullName, null);
+    }
+    
+    /**
+     * Handles renames of jobs and folders.
+     * Items within the renamed folder will be also moved.
+     * @param oldFullName Old full name of the item
+     * @param newFullName New full name of the item
+     */
+    public void renameJob(@Nonnull String oldFullName, @Nonnull String newFullName) {
+        jobs.rename(oldFullName, newFullName);
+    }
+    
+    /**
+     * Removes all jobs within the specified folder.
+     * @param folderFullName Full name of the folder
+     */
+    public void removeJobsWithin(@Nonnull String folderFullName) {
+        jobs.removeChildren(folderFullName);
+    }
+    
+    public void updateNode(@Nonnull String nodeName, @CheckForNull OwnershipDescription descr) {
+        nodes.update(nodeName, descr);
+    }
+    
+    public void removeNode(@Nonnull String nodeName) {
+        nodes.update(nodeName, null);
+    }
+    
+    /**
+     * Gets jobs owned by the user.
+     * @param userId User ID or sid
+     * @param includeCoowned Include jobs, where the user is a co-owner
+     * @return Full names of the jobs
+     */
+    public @Nonnull Set<String> getOwnedJobs(@Nonnull String userId, boolean includeCoowned) {
+        return jobs.getOwnedItems(userId, includeCoowned);
+    }
+    
+    public @Nonnull Set<String> getCoOwnedJobs(@Nonnull String userId) {
+        return jobs.getCoOwnedItems(userId);
+    }
+    
+    /**
+     * Gets jobs owned by the user within the folder.
+     * Nested folders are being included.
+     * @param folderFullName Full name of the folder
+     * @param userId User ID or sid
+     * @param includeCoowned Include jobs, where the user is a co-owner
+     * @return Full names of the jobs
+     * @since 0.6
+     */
+    public @Nonnull Set<String> getOwnedJobsWithin(@Nonnull String folderFullName, 
+            @Nonnull String userId, boolean includeCoowned) {
+        return jobs.getOwnedItemsWithin(folderFullName, userId, includeCoowned);
+    }
+    
+    /**
+     * Gets the number of jobs with enabled ownership within the folder.
+     * Nested folders are being included. The counter is being maintained incrementally.
+     * @param folderFullName Full name of the folder
+     * @return Number of owned jobs
+     * @since 0.6
+     */
+    public int getOwnedJobsCountWithin(@Nonnull String folderFullName) {
+        return jobs.getCountWithin(folderFullName);
+    }
+    
+    /**
+     * Gets nodes owned by the user.
+     * @param userId User ID or sid
+     * @param includeCoowned Include nodes, where the user is a co-owner
+     * @return Names of the nodes
+     */
+    public @Nonnull Set<String> getOwnedNodes(@Nonnull String userId, boolean includeCoowned) {
+        return nodes.getOwnedItems(userId, includeCoowned);
+    }
+    
+    public @Nonnull Set<String> getCoOwnedNodes(@Nonnull String userId) {
+        return nodes.getCoOwnedItems(userId);
+    }
+    
+    /**
+     * Gets the indexed ownership of the job.
+     * @param fullName Full name of the job
+     * @return Ownership description or null if the job is not indexed
+     */
+    public @CheckForNull OwnershipDescription getJobOwnership(@Nonnull String fullName) {
+        return jobs.getDescription(fullName);
+    }
+    
+    public @CheckForNull OwnershipDescription getNodeOwnership(@Nonnull String nodeName) {
+        return nodes.getDescription(nodeName);
+    }
+    
+    /**
+     * Gets all users and sids, which own or co-own at least one item.
+     * @return Set of user IDs and sids
+     */
+    public @Nonnull Set<String> getKnownOwners() {
+        Set<String> res = new HashSet<String>();
+        jobs.collectOwners(res);
+        nodes.collectOwners(res);
+        return res;
+    }
+    
+    public int getJobsCount() {
+        return jobs.size();
+    }
+    
+    public int getNodesCount() {
+        return nodes.size();
+    }
+    
+    /**
+     * Rebuilds the entire index and marks it as ready.
+     * The method performs the full scan of jobs and nodes.
+     */
+    public synchronized void rebuild() {
+        final Jenkins j = Jenkins.getInstance();
+        if (j == null) {
+            return; // Nothing to index
+        }
+        
+        final long startTime = System.currentTimeMillis();
+        final List<Job> allJobs = getIndexedJobs(j);
+        jobs.startBuild();
+        jobs.replace(buildJobs(allJobs));
+        rebuildNodes();
+        ready = true;
+        
+        lastBuildTimestamp = System.currentTimeMillis();
+        lastBuildDuration = lastBuildTimestamp - startTime;
+        LOGGER.log(Level.INFO, "Ownership index has been built in {0} ms: {1} jobs, {2} nodes, {3} owned jobs", 
+                new Object[] {lastBuildDuration, allJobs.size(), nodes.size(), jobs.size()});
+    }
+    
+    /**
+     * Gets jobs, which should be indexed.
+     * {@link Jenkins#getAllItems(Class)} walks into jobs, which are item groups.
+     */
+    @Nonnull
+    private static List<Job> getIndexedJobs(@Nonnull Jenkins j) {
+        final List<Job> res = new ArrayList<Job>();
+        for (Job job : j.getAllItems(Job.class)) {
+            if (!(job.getParent() instanceof Job)) {
+                res.add(job);
+            }
+        }
+        return res;
+    }
+    
+    /**
+     * Builds the jobs index.
+     * Big lists are being split into chunks, which are processed in parallel.
+     * The result is being merged in the calling thread.
+     */
+    @Nonnull
+    private static ItemIndex.Builder buildJobs(@Nonnull List<Job> allJobs) {
+        if (allJobs.size() <= BUILD_CHUNK_SIZE || BUILD_THREADS <= 1) {
+            return buildJobsChunk(allJobs);
+        }
+        
+        final ExecutorService executor = Executors.newFixedThreadPool(BUILD_THREADS, new BuilderThreadFactory());
+        try {
+            final List<Future<ItemIndex.Builder>> futures = new ArrayList<Future<ItemIndex.Builder>>();
+            for (int start = 0; start < allJobs.size(); start += BUILD_CHUNK_SIZE) {
+                final List<Job> chunk = allJobs.subList(start, Math.min(start + BUILD_CHUNK_SIZE, allJobs.size()));
+                futures.add(executor.submit(new Callable<ItemIndex.Builder>() {
+                    public ItemIndex.Builder call() throws Exception {
+                        return buildJobsChunk(chunk);
+                    }
+                }));
+            }
+            
+            final ItemIndex.Builder res = new ItemIndex.Builder();
+            for (Future<ItemIndex.Builder> future : futures) {
+                res.addAll(future.get());
+            }
+            return res;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            LOGGER.log(Level.WARNING, "Interrupted the parallel index build, falling back to the sequential one", ex);
+        } catch (ExecutionException ex) {
+            LOGGER.log(Level.WARNING, "Failed the parallel index build, falling back to the sequential one", ex);
+        } finally {
+            executor.shutdownNow();
+        }
+        return buildJobsChunk(allJobs);
+    }
+    
+    @Nonnull
+    private static ItemIndex.Builder buildJobsChunk(@Nonnull List<Job> chunk) {
+        final ItemIndex.Builder builder = new ItemIndex.Builder();
+        for (Job<?,?> job : chunk) {
+            builder.add(job.getFullName(), JobOwnerHelper.Instance.getOwnershipDescription(job));
+        }
+        return builder;
+    }
+    
+    /**
+     * Rebuilds the nodes part of the index.
+     * Nodes are being stored in the global configuration, hence their
+     * rescan is cheap. The master node is being indexed as well.
+     * Modifications during the rescan are being reapplied like for jobs.
+     */
+    public synchronized void rebuildNodes() {
+        final Jenkins j = Jenkins.getInstance();
+        if (j == null) {
+            return; // Nothing to index
+        }
+        
+        nodes.startBuild();
+        final ItemIndex.Builder nodesBuilder = new ItemIndex.Builder();
+        nodesBuilder.add(j.getNodeName(), NodeOwnerHelper.Instance.getOwnershipDescription(j));
+        for (Node node : j.getNodes()) {
+            nodesBuilder.add(node.getNodeName(), NodeOwnerHelper.Instance.getOwnershipDescription(node));
+        }
+        nodes.replace(nodesBuilder);
+    }
+    
+    /**
+     * Index for a single item type.
+     */
+    /*package*/ static class ItemIndex {
+        
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private Map<String, OwnershipDescription> descriptions = new HashMap<String, OwnershipDescription>();
+        private Map<String, Set<String>> primary = new HashMap<String, Set<String>>();
+        private Map<String, Set<String>> coowned = new HashMap<String, Set<String>>();
+        
+        /**
+         * Numbers of owned items within folders, keyed by full names of folders.
+         * Counters are being updated incrementally on each registration.
+         */
+        private Map<String, Integer> countsWithin = new HashMap<String, Integer>();
+        
+        /**
+         * Modifications, which happen during the full build.
+         * They are being reapplied once the build completes.
+         * Null values stand for removals. Guarded by the write lock.
+         */
+        @CheckForNull
+        private Map<String, OwnershipDescription> updatesDuringBuild;
+        
+        void startBuild() {
+            lock.writeLock().lock();
+            try {
+                updatesDuringBuild = new HashMap<String, OwnershipDescription>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        void update(@Nonnull String itemName, @CheckForNull OwnershipDescription descr) {
+            lock.writeLock().lock();
+            try {
+                updateUnlocked(itemName, descr);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        // Should be invoked under the write lock
+        private void updateUnlocked(@Nonnull String itemName, @CheckForNull OwnershipDescription descr) {
+            unregister(itemName);
+            if (OwnershipDescription.isEnabled(descr)) {
+                register(itemName, descr);
+            }
+            if (updatesDuringBuild != null) {
+                updatesDuringBuild.put(itemName, descr);
+            }
+        }
+        
+        void rename(@Nonnull String oldName, @Nonnull String newName) {
+            lock.writeLock().lock();
+            try {
+                final String oldPrefix = oldName + "/";
+                final Map<String, OwnershipDescription> moved = new HashMap<String, OwnershipDescription>();
+                for (Map.Entry<String, OwnershipDescription> entry : descriptions.entrySet()) {
+                    final String name = entry.getKey();
+                    if (name.equals(oldName)) {
+                        moved.put(newName, entry.getValue());
+                    } else if (name.startsWith(oldPrefix)) {
+                        moved.put(newName + name.substring(oldName.length()), entry.getValue());
+                    }
+                }
+                updateUnlocked(oldName, null);
+                removeChildrenUnlocked(oldPrefix);
+                for (Map.Entry<String, OwnershipDescription> entry : moved.entrySet()) {
+                    updateUnlocked(entry.getKey(), entry.getValue());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        void removeChildren(@Nonnull String folderName) {
+            lock.writeLock().lock();
+            try {
+                removeChildrenUnlocked(folderName + "/");
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        private void removeChildrenUnlocked(@Nonnull String prefix) {
+            Set<String> toRemove = new HashSet<String>();
+            for (String name : descriptions.keySet()) {
+                if (name.startsWith(prefix)) {
+                    toRemove.add(name);
+                }
+            }
+            for (String name : toRemove) {
+                updateUnlocked(name, null);
+            }
+        }
+        
+        @Nonnull 
+        Set<String> getOwnedItems(@Nonnull String userId, boolean includeCoowned) {
+            lock.readLock().lock();
+            try {
+                Set<String> res = new HashSet<String>();
+                Set<String> owned = primary.get(userId);
+                if (owned != null) {
+                    res.addAll(owned);
+                }
+                if (includeCoowned) {
+                    Set<String> co = coowned.get(userId);
+                    if (co != null) {
+                        res.addAll(co);
+                    }
+                }
+                return res;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        @Nonnull 
+        Set<String> getCoOwnedItems(@Nonnull String userId) {
+            lock.readLock().lock();
+            try {
+                Set<String> co = coowned.get(userId);
+                return co != null ? new HashSet<String>(co) : Collections.<String>emptySet();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        /**
+         * Gets items owned by the user within the folder.
+         * @param folderName Full name of the folder
+         * @param userId User ID
+         * @param includeCoowned Include items, where the user is a co-owner
+         * @return Full names of items
+         */
+        @Nonnull 
+        Set<String> getOwnedItemsWithin(@Nonnull String folderName, @Nonnull String userId, boolean includeCoowned) {
+            final String prefix = folderName + "/";
+            lock.readLock().lock();
+            try {
+                Set<String> res = new HashSet<String>();
+                collectWithin(primary.get(userId), prefix, res);
+                if (includeCoowned) {
+                    collectWithin(coowned.get(userId), prefix, res);
+                }
+                return res;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        private static void collectWithin(@CheckForNull Set<String> items, @Nonnull String prefix, 
+                @Nonnull Set<String> target) {
+            if (items == null) {
+                return;
+            }
+            for (String item : items) {
+                if (item.startsWith(prefix)) {
+                    target.add(item);
+                }
+            }
+        }
+        
+        int getCountWithin(@Nonnull String folderName) {
+            lock.readLock().lock();
+            try {
+                final Integer count = countsWithin.get(folderName);
+                return count != null ? count : 0;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        @CheckForNull
+        OwnershipDescription getDescription(@Nonnull String itemName) {
+            lock.readLock().lock();
+            try {
+                return descriptions.get(itemName);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        void collectOwners(@Nonnull Set<String> target) {
+            lock.readLock().lock();
+            try {
+                target.addAll(primary.keySet());
+                target.addAll(coowned.keySet());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        int size() {
+            lock.readLock().lock();
+            try {
+                return descriptions.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        /**
+         * Replaces the index contents by the prebuilt data.
+         * Modifications since {@link #startBuild()} are being reapplied.
+         * @param builder Builder with the new data
+         */
+        void replace(@Nonnull Builder builder) {
+            lock.writeLock().lock();
+            try {
+                descriptions = builder.descriptions;
+                primary = builder.primary;
+                coowned = builder.coowned;
+                countsWithin = builder.countsWithin;
+                
+                final Map<String, OwnershipDescription> updates = updatesDuringBuild;
+                updatesDuringBuild = null;
+                if (updates != null) {
+                    for (Map.Entry<String, OwnershipDescription> entry : updates.entrySet()) {
+                        updateUnlocked(entry.getKey(), entry.getValue());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        // Should be invoked under the write lock
+        private void register(@Nonnull String itemName, @Nonnull OwnershipDescription descr) {
+            register(descriptions, primary, coowned, countsWithin, itemName, descr);
+        }
+        
+        // Should be invoked under the write lock
+        private void unregister(@Nonnull String itemName) {
+            OwnershipDescription old = descriptions.remove(itemName);
+            if (old == null) {
+                return;
+            }
+            updateCountsWithin(countsWithin, itemName, -1);
+            removeFrom(primary, old.getPrimaryOwnerId(), itemName);
+            for (String coownerId : old.getCoownersIds()) {
+                removeFrom(coowned, coownerId, itemName);
+            }
+        }
+        
+        private static void register(Map<String, OwnershipDescription> descriptions,
+                Map<String, Set<String>> primary, Map<String, Set<String>> coowned,
+                Map<String, Integer> countsWithin,
+                @Nonnull String itemName, @Nonnull OwnershipDescription descr) {
+            if (descriptions.put(itemName, descr) == null) {
+                updateCountsWithin(countsWithin, itemName, 1);
+            }
+            addTo(primary, descr.getPrimaryOwnerId(), itemName);
+            for (String coownerId : descr.getCoownersIds()) {
+                addTo(coowned, coownerId, itemName);
+            }
+        }
+        
+        /**
+         * Updates counters of all folders, which contain the item.
+         * @param countsWithin Counters
+         * @param itemName Full name of the item
+         * @param delta Counter change
+         */
+        private static void updateCountsWithin(Map<String, Integer> countsWithin, String itemName, int delta) {
+            for (int i = itemName.indexOf('/'); i > 0; i = itemName.indexOf('/', i + 1)) {
+                final String folderName = itemName.substring(0, i);
+                final Integer current = countsWithin.get(folderName);
+                final int updated = (current != null ? current : 0) + delta;
+                if (updated > 0) {
+                    countsWithin.put(folderName, updated);
+                } else {
+                    countsWithin.remove(folderName);
+                }
+            }
+        }
+        
+        private static void addTo(Map<String, Set<String>> map, String userId, String itemName) {
+            Set<String> items = map.get(userId);
+            if (items == null) {
+                items = new HashSet<String>();
+                map.put(userId, items);
+            }
+            items.add(itemName);
+        }
+        
+        private static void removeFrom(Map<String, Set<String>> map, String userId, String itemName) {
+            Set<String> items = map.get(userId);
+            if (items != null) {
+                items.remove(itemName);
+                if (items.isEmpty()) {
+                    map.remove(userId);
+                }
+            }
+        }
+        
+        /**
+         * Collects the index data without locking of the live index.
+         */
+        static class Builder {
+            private final Map<String, OwnershipDescription> descriptions = new HashMap<String, OwnershipDescription>();
+            private final Map<String, Set<String>> primary = new HashMap<String, Set<String>>();
+            private final Map<String, Set<String>> coowned = new HashMap<String, Set<String>>();
+            private final Map<String, Integer> countsWithin = new HashMap<String, Integer>();
+            
+            void add(@Nonnull String itemName, @Nonnull OwnershipDescription descr) {
+                if (OwnershipDescription.isEnabled(descr)) {
+                    register(descriptions, primary, coowned, countsWithin, itemName, descr);
+                }
+            }
+            
+            /**
+             * Merges data of another builder. Item sets should not overlap.
+             * @param other Builder to be merged
+             */
+            void addAll(@Nonnull Builder other) {
+                descriptions.putAll(other.descriptions);
+                merge(primary, other.primary);
+                merge(coowned, other.coowned);
+                for (Map.Entry<String, Integer> entry : other.countsWithin.entrySet()) {
+                    final Integer current = countsWithin.get(entry.getKey());
+                    countsWithin.put(entry.getKey(), current != null ? current + entry.getValue() : entry.getValue());
+                }
+            }
+            
+            private static void merge(Map<String, Set<String>> target, Map<String, Set<String>> source) {
+                for (Map.Entry<String, Set<String>> entry : source.entrySet()) {
+                    final Set<String> items = target.get(entry.getKey());
+                    if (items == null) {
+                        target.put(entry.getKey(), entry.getValue());
+                    } else {
+                        items.addAll(entry.getValue());
+                    }
+                }
+            }
+        }
+    }
+    
+    private static final class BuilderThreadFactory implements ThreadFactory {
+        private final ThreadFactory delegate = new DaemonThreadFactory();
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        public Thread newThread(Runnable r) {
+            Thread t = delegate.newThread(r);
+            t.setName("Ownership index builder #" + counter.incrementAndGet());
+            return t;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.nodes;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.ComputerOwnerHelper;
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Computer;
+import hudson.model.TaskListener;
+import hudson.slaves.ComputerListener;
+import hudson.slaves.OfflineCause;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.ownership.model.events.OwnershipChangeEvent;
+import org.jenkinsci.plugins.ownership.model.events.OwnershipChangeListener;
+import org.jenkinsci.plugins.ownership.model.index.OwnershipIndex;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Aggregates executors of nodes by their owners.
+ * <p>
+ * States of nodes (number of executors, online status and ownership) are being 
+ * maintained incrementally by {@link ComputerListener} and 
+ * {@link OwnershipChangeListener} events. 
+ * Busy executors change too often for events, so they are being sampled 
+ * for all nodes at once and reused for {@link #BUSY_REFRESH_MS}.
+ * Reports do not require ownership lookups.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class OwnerCapacityTracker {
+    
+    /**
+     * Lifetime of sampled numbers of busy executors in milliseconds.
+     */
+    private static final long BUSY_REFRESH_MS = Integer.getInteger(
+            OwnerCapacityTracker.class.getName() + ".busyRefreshMs", 2000);
+    
+    private static final OwnerCapacityTracker INSTANCE = new OwnerCapacityTracker();
+    
+    private final Map<String, NodeState> nodes = new ConcurrentHashMap<String, NodeState>();
+    private volatile boolean initialized;
+    
+    private volatile Map<String, Integer> busyExecutors = Collections.emptyMap();
+    private volatile long busyTimestamp;
+    
+    public static @Nonnull OwnerCapacityTracker getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Gets capacity of owners.
+     * @param includeCoOwners Count nodes of co-owners as well
+     * @param visibleOnly Skip nodes, which are not visible to the current user
+     * @return Capacity of owners sorted by owner IDs
+     */
+    @Nonnull
+    public List<OwnerCapacity> getCapacity(boolean includeCoOwners, boolean visibleOnly) {
+        ensureInitialized();
+        final Jenkins jenkins = Jenkins.getInstance();
+        final Map<String, Integer> busy = getBusyExecutors();
+        final Map<String, OwnerCapacity> res = new TreeMap<String, OwnerCapacity>();
+        for (NodeState state : nodes.values()) {
+            if (!state.ownership.isOwnershipEnabled()) {
+                continue;
+            }
+            if (visibleOnly && jenkins != null) {
+                final Computer c = jenkins.getComputer(state.nodeName);
+                if (c != null && !c.hasPermission(Computer.READ)) {
+                    continue;
+                }
+            }
+            
+            final Integer busyCount = busy.get(state.nodeName);
+            add(res, state.ownership.getPrimaryOwnerId(), state, busyCount != null ? busyCount : 0);
+            if (includeCoOwners) {
+                for (String coOwnerId : state.ownership.getCoownersIds()) {
+                    add(res, coOwnerId, state, busyCount != null ? busyCount : 0);
+                }
+            }
+        }
+        return new ArrayList<OwnerCapacity>(res.values());
+    }
+    
+    private static void add(@Nonnull Map<String, OwnerCapacity> target, @Nonnull String ownerId, 
+            @Nonnull NodeState state, int busy) {
+        OwnerCapacity capacity = target.get(ownerId);
+        if (capacity == null) {
+            capacity = new OwnerCapacity(ownerId);
+            target.put(ownerId, capacity);
+        }
+        capacity.add(state, busy);
+    }
+    
+    @Nonnull
+    private Map<String, Integer> getBusyExecutors() {
+        final long now = System.currentTimeMillis();
+        if (now - busyTimestamp <= BUSY_REFRESH_MS) {
+            return busyExecutors;
+        }
+        
+        final Jenkins jenkins = Jenkins.getInstance();
+        if (jenkins == null) {
+            return busyExecutors;
+        }
+        final Map<String, Integer> res = new HashMap<String, Integer>();
+        for (Computer c : jenkins.getComputers()) {
+            if (c.isOnline()) {
+                res.put(c.getName(), c.countBusy());
+            }
+        }
+        busyExecutors = res;
+        busyTimestamp = now;
+        return res;
+    }
+    
+    private void ensureInitialized() {
+        if (!initialized) {
+            synchronized (this) {
+                if (!initialized) {
+                    rescan();
+                    initialized = true;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reloads states of all nodes.
+     * Nodes may be added or removed on configuration changes.
+     */
+    synchronized void rescan() {
+        final Jenkins jenkins = Jenkins.getInstance();
+        if (jenkins == null) {
+            return;
+        }
+        final Set<String> existing = new HashSet<String>();
+        for (Computer c : jenkins.getComputers()) {
+            nodes.put(c.getName(), new NodeState(c, getOwnership(c)));
+            existing.add(c.getName());
+        }
+        nodes.keySet().retainAll(existing);
+    }
+    
+    void onComputerChanged(@Nonnull Computer c) {
+        if (!initialized) {
+            return; // The state will be loaded on the first request
+        }
+        final NodeState old = nodes.get(c.getName());
+        nodes.put(c.getName(), new NodeState(c, old != null ? old.ownership : getOwnership(c)));
+    }
+    
+    void onOwnershipChanged(@Nonnull String nodeName, @Nonnull OwnershipDescription ownership) {
+        if (!initialized) {
+            return;
+        }
+        final NodeState old = nodes.get(nodeName);
+        if (old != null) {
+            nodes.put(nodeName, old.withOwnership(ownership));
+        }
+    }
+    
+    @Nonnull
+    private static OwnershipDescription getOwnership(@Nonnull Computer c) {
+        final OwnershipIndex index = OwnershipIndex.getInstance();
+        if (index.isReady()) {
+            final OwnershipDescription indexed = index.getNodeOwnership(c.getName());
+            return indexed != null ? indexed : OwnershipDescription.DISABLED_DESCR;
+        }
+        return ComputerOwnerHelper.getInstance().getOwnershipDescription(c);
+    }
+    
+    /**
+     * Immutable state of a single node.
+     */
+    private static final class NodeState {
+        @Nonnull
+        private final String nodeName;
+        private final int executors;
+        private final boolean offline;
+        @Nonnull
+        private final OwnershipDescription ownership;
+
+        NodeState(@Nonnull String nodeName, int executors, boolean offline, @Nonnull OwnershipDescription ownership) {
+            this.nodeName = nodeName;
+            this.executors = executors;
+            this.offline = offline;
+            this.ownership = ownership;
+        }
+        
+        NodeState(@Nonnull Computer c, @Nonnull OwnershipDescription ownership) {
+            this(c.getName(), c.getNumExecutors(), c.isOffline(), ownership);
+        }
+        
+        @Nonnull
+        NodeState withOwnership(@Nonnull OwnershipDescription newOwnership) {
+            return new NodeState(nodeName, executors, offline, newOwnership);
+        }
+    }
+    
+    /**
+     * Aggregated capacity of a single owner.
+     */
+    public static final class OwnerCapacity {
+        @Nonnull
+        private final String ownerId;
+        private int nodes;
+        private int executors;
+        private int busy;
+        private int idle;
+        private int offline;
+
+        OwnerCapacity(@Nonnull String ownerId) {
+            this.ownerId = ownerId;
+        }
+        
+        void add(@Nonnull NodeState state, int busyExecutors) {
+            nodes++;
+            executors += state.executors;
+            if (state.offline) {
+                offline += state.executors;
+            } else {
+                final int nodeBusy = Math.min(busyExecutors, state.executors);
+                busy += nodeBusy;
+                idle += state.executors - nodeBusy;
+            }
+        }
+
+        @Nonnull
+        public String getOwnerId() {
+            return ownerId;
+        }
+        
+        /**
+         * Gets URL of the owner's page.
+         * @return URL relative to the root URL
+         */
+        @Nonnull
+        public String getUrl() {
+            return "user/" + Util.rawEncode(ownerId) + "/";
+        }
+
+        public int getNodes() {
+            return nodes;
+        }
+
+        public int getExecutors() {
+            return executors;
+        }
+
+        public int getBusy() {
+            return busy;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getOffline() {
+            return offline;
+        }
+    }
+    
+    /**
+     * Tracks online status and executors of nodes.
+     */
+    @Extension
+    public static class ComputerListenerImpl extends ComputerListener {
+
+        @Override
+        public void onOnline(Computer c, TaskListener listener) {
+            INSTANCE.onComputerChanged(c);
+        }
+
+        @Override
+        public void onOffline(Computer c) {
+            INSTANCE.onComputerChanged(c);
+        }
+
+        @Override
+        public void onTemporarilyOnline(Computer c) {
+            INSTANCE.onComputerChanged(c);
+        }
+
+        @Override
+        public void onTemporarilyOffline(Computer c, OfflineCause cause) {
+            INSTANCE.onComputerChanged(c);
+        }
+
+        @Override
+        public void onConfigurationChange() {
+            if (INSTANCE.initialized) {
+                INSTANCE.rescan();
+            }
+        }
+    }
+    
+    /**
+     * Tracks the ownership of nodes.
+     */
+    @Extension
+    public static class OwnershipListenerImpl extends OwnershipChangeListener {
+
+        @Override
+        public void onChanged(OwnershipChangeEvent event) {
+            if (event.getItemType() == OwnershipChangeEvent.ItemType.NODE) {
+                INSTANCE.onOwnershipChanged(event.getItemName(), event.getNewOwnership());
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.nodes;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.ComputerOwnerHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.NodeOwnerHelper;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.security.ACL;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
+import org.jenkinsci.plugins.ownership.model.events.OwnershipChangeDispatcher;
+import org.jenkinsci.plugins.ownership.model.index.OwnershipIndex;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Maintains {@link OwnershipFleetSnapshot} of all nodes.
+ * <p>
+ * The snapshot covers all configured nodes including the master, 
+ * nodes without executors are being taken into account as well.
+ * The snapshot is being calculated once per monitoring cycle of 
+ * {@link com.synopsys.arc.jenkins.plugins.ownership.nodes.OwnershipNodeMonitor}, 
+ * other invocations within {@link #MAX_AGE_MS} reuse it.
+ * New snapshots are being compared to the previous one. 
+ * If nothing has changed, the previous snapshot remains published, 
+ * so its version stays the same.
+ * Changes, which have not been reported by ownership helpers 
+ * (e.g. modifications of the configuration on the disk), are being passed 
+ * to {@link OwnershipChangeDispatcher} on behalf of {@link ACL#SYSTEM}, 
+ * because the refresh may be triggered by any request.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class OwnershipFleetMonitor {
+    
+    private static final Logger LOGGER = Logger.getLogger(OwnershipFleetMonitor.class.getName());
+    
+    /**
+     * Maximum age of the snapshot, which may be reused without recalculation.
+     */
+    private static final long MAX_AGE_MS = TimeUnit.SECONDS.toMillis(Integer.getInteger(
+            OwnershipFleetMonitor.class.getName() + ".maxAgeSec", 30));
+    
+    private static final OwnershipFleetMonitor INSTANCE = new OwnershipFleetMonitor();
+    
+    private volatile OwnershipFleetSnapshot snapshot = OwnershipFleetSnapshot.EMPTY;
+    
+    /**
+     * Time of the last calculation.
+     * Differs from the snapshot timestamp if the recalculation did not find changes.
+     */
+    private volatile long lastCheckTimestamp;
+    
+    public static @Nonnull OwnershipFleetMonitor getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Gets the current snapshot.
+     * The snapshot gets recalculated if it is outdated.
+     * @return Current snapshot
+     */
+    @Nonnull
+    public OwnershipFleetSnapshot getSnapshot() {
+        if (System.currentTimeMillis() - lastCheckTimestamp > MAX_AGE_MS) {
+            refresh();
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Gets the published snapshot without recalculation.
+     * @return Last published snapshot
+     */
+    @Nonnull
+    public OwnershipFleetSnapshot getLastSnapshot() {
+        return snapshot;
+    }
+
+    public long getLastCheckTimestamp() {
+        return lastCheckTimestamp;
+    }
+    
+    /**
+     * Gets ownership of the computer from the current snapshot.
+     * @param c Computer
+     * @return Ownership description
+     */
+    @Nonnull
+    public OwnershipDescription getOwnership(@Nonnull Computer c) {
+        final OwnershipDescription descr = getSnapshot().getOwnership(c.getName());
+        // The computer may appear after the snapshot calculation
+        return descr != null ? descr : ComputerOwnerHelper.getInstance().getOwnershipDescription(c);
+    }
+    
+    /**
+     * Recalculates the snapshot and publishes it if there are changes.
+     */
+    public synchronized void refresh() {
+        final long now = System.currentTimeMillis();
+        if (now - lastCheckTimestamp <= MAX_AGE_MS) {
+            return; // Another thread has already refreshed the snapshot
+        }
+        final Jenkins jenkins = Jenkins.getInstance();
+        if (jenkins == null) {
+            return;
+        }
+        
+        // Computers are not being created for nodes without executors
+        final OwnershipFleetSnapshot.Builder builder = new OwnershipFleetSnapshot.Builder();
+        builder.add(jenkins.getNodeName(), NodeOwnerHelper.Instance.getOwnershipDescription(jenkins));
+        for (Node node : jenkins.getNodes()) {
+            builder.add(node.getNodeName(), NodeOwnerHelper.Instance.getOwnershipDescription(node));
+        }
+        
+        final OwnershipFleetSnapshot previous = snapshot;
+        final OwnershipFleetSnapshot current = builder.build(previous.getVersion() + 1, now);
+        final Set<String> changes = current.diff(previous);
+        lastCheckTimestamp = now;
+        if (changes.isEmpty()) {
+            return;
+        }
+        
+        snapshot = current;
+        LOGGER.log(Level.FINE, "Published the ownership snapshot #{0} of {1} nodes, {2} changes", 
+                new Object[] {current.getVersion(), current.getNodes().size(), changes.size()});
+        final SecurityContext initialContext = ACL.impersonate(ACL.SYSTEM);
+        try {
+            publishChanges(current, changes);
+        } finally {
+            SecurityContextHolder.setContext(initialContext);
+        }
+    }
+    
+    /**
+     * Passes changes, which are not known to the index, to the dispatcher.
+     */
+    private void publishChanges(@Nonnull OwnershipFleetSnapshot current, @Nonnull Set<String> changes) {
+        final OwnershipIndex index = OwnershipIndex.getInstance();
+        if (!index.isReady()) {
+            return; // The index will read nodes on its own
+        }
+        for (String nodeName : changes) {
+            final OwnershipDescription indexed = index.getNodeOwnership(nodeName);
+            final OwnershipDescription actual = current.getOwnership(nodeName);
+            if (!equals(indexed, actual)) {
+                OwnershipChangeDispatcher.getInstance().nodeChanged(nodeName, indexed, actual);
+            }
+        }
+    }
+    
+    private static boolean equals(@CheckForNull OwnershipDescription indexed, 
+            @CheckForNull OwnershipDescription actual) {
+        // The index does not store disabled ownership
+        final boolean indexedEnabled = OwnershipDescription.isEnabled(indexed);
+        final boolean actualEnabled = OwnershipDescription.isEnabled(actual);
+        if (!indexedEnabled || !actualEnabled) {
+            return indexedEnabled == actualEnabled;
+        }
+        return indexed.equals(actual);
+    }
+}
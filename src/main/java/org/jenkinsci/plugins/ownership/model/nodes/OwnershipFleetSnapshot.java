@@ -0,0 +1,178 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.nodes;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Immutable snapshot of the ownership of all nodes.
+ * The snapshot contains both node-to-ownership and owner-to-nodes mappings.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public final class OwnershipFleetSnapshot {
+    
+    static final OwnershipFleetSnapshot EMPTY = new Builder().build(0, 0);
+    
+    private final long version;
+    private final long timestamp;
+    private final Map<String, OwnershipDescription> nodes;
+    private final Map<String, SortedSet<String>> ownedNodes;
+    private final Map<String, SortedSet<String>> coOwnedNodes;
+
+    private OwnershipFleetSnapshot(long version, long timestamp, 
+            @Nonnull Map<String, OwnershipDescription> nodes,
+            @Nonnull Map<String, SortedSet<String>> ownedNodes,
+            @Nonnull Map<String, SortedSet<String>> coOwnedNodes) {
+        this.version = version;
+        this.timestamp = timestamp;
+        this.nodes = Collections.unmodifiableMap(nodes);
+        this.ownedNodes = Collections.unmodifiableMap(ownedNodes);
+        this.coOwnedNodes = Collections.unmodifiableMap(coOwnedNodes);
+    }
+    
+    /**
+     * Gets version of the snapshot.
+     * The version changes only if the ownership of nodes changes.
+     * @return Version of the snapshot
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets time of the snapshot creation.
+     * @return Timestamp in milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    /**
+     * Gets ownership of nodes.
+     * @return Sorted map of node names and their ownership
+     */
+    @Nonnull
+    public Map<String, OwnershipDescription> getNodes() {
+        return nodes;
+    }
+    
+    @CheckForNull
+    public OwnershipDescription getOwnership(@Nonnull String nodeName) {
+        return nodes.get(nodeName);
+    }
+    
+    /**
+     * Gets nodes of primary owners.
+     * @return Sorted map of owner IDs and names of their nodes
+     */
+    @Nonnull
+    public Map<String, SortedSet<String>> getOwnedNodes() {
+        return ownedNodes;
+    }
+    
+    /**
+     * Gets nodes of co-owners.
+     * @return Sorted map of co-owner IDs and names of their nodes
+     */
+    @Nonnull
+    public Map<String, SortedSet<String>> getCoOwnedNodes() {
+        return coOwnedNodes;
+    }
+    
+    /**
+     * Gets names of nodes, which differ in the specified snapshot.
+     * Added, removed and modified nodes are being returned.
+     * @param other Snapshot to be compared
+     * @return Names of changed nodes
+     */
+    @Nonnull
+    public Set<String> diff(@Nonnull OwnershipFleetSnapshot other) {
+        final Set<String> res = new HashSet<String>();
+        for (Map.Entry<String, OwnershipDescription> entry : nodes.entrySet()) {
+            if (!entry.getValue().equals(other.nodes.get(entry.getKey()))) {
+                res.add(entry.getKey());
+            }
+        }
+        for (String nodeName : other.nodes.keySet()) {
+            if (!nodes.containsKey(nodeName)) {
+                res.add(nodeName);
+            }
+        }
+        return res;
+    }
+    
+    /**
+     * Collects data of the snapshot.
+     */
+    static final class Builder {
+        private final Map<String, OwnershipDescription> nodes = new TreeMap<String, OwnershipDescription>();
+        private final Map<String, SortedSet<String>> ownedNodes = new TreeMap<String, SortedSet<String>>();
+        private final Map<String, SortedSet<String>> coOwnedNodes = new TreeMap<String, SortedSet<String>>();
+        
+        @Nonnull
+        Builder add(@Nonnull String nodeName, @Nonnull OwnershipDescription descr) {
+            nodes.put(nodeName, descr);
+            if (descr.isOwnershipEnabled()) {
+                addTo(ownedNodes, descr.getPrimaryOwnerId(), nodeName);
+                for (String coOwnerId : descr.getCoownersIds()) {
+                    addTo(coOwnedNodes, coOwnerId, nodeName);
+                }
+            }
+            return this;
+        }
+        
+        private static void addTo(Map<String, SortedSet<String>> map, String userId, String nodeName) {
+            SortedSet<String> items = map.get(userId);
+            if (items == null) {
+                items = new TreeSet<String>();
+                map.put(userId, items);
+            }
+            items.add(nodeName);
+        }
+        
+        @Nonnull
+        OwnershipFleetSnapshot build(long version, long timestamp) {
+            for (Map.Entry<String, SortedSet<String>> entry : ownedNodes.entrySet()) {
+                entry.setValue(Collections.unmodifiableSortedSet(entry.getValue()));
+            }
+            for (Map.Entry<String, SortedSet<String>> entry : coOwnedNodes.entrySet()) {
+                entry.setValue(Collections.unmodifiableSortedSet(entry.getValue()));
+            }
+            return new OwnershipFleetSnapshot(version, timestamp, nodes, ownedNodes, coOwnedNodes);
+        }
+    }
+}
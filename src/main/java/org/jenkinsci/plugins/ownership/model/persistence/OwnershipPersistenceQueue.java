@@ -0,0 +1,217 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.persistence;
+
+import hudson.model.Item;
+import hudson.model.Saveable;
+import hudson.util.DaemonThreadFactory;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Write-behind queue for ownership modifications.
+ * <p>
+ * Ownership changes modify the in-memory state immediately, but the 
+ * configuration files are being written by a background thread after a 
+ * short delay. Repeated modifications of the same {@link Saveable} within 
+ * the delay are being coalesced into a single save.
+ * The queue is being flushed on the plugin's shutdown.
+ * Set the delay to 0 in order to save synchronously.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class OwnershipPersistenceQueue {
+    
+    private static final Logger LOGGER = Logger.getLogger(OwnershipPersistenceQueue.class.getName());
+    
+    /**
+     * Delay between the modification and the save (in milliseconds).
+     */
+    private static final long DELAY_MS = Long.getLong(
+            OwnershipPersistenceQueue.class.getName() + ".delayMs", 500);
+    
+    private static final OwnershipPersistenceQueue INSTANCE = new OwnershipPersistenceQueue();
+    
+    /**
+     * Pending saves and their deadlines. Guarded by {@code this}.
+     */
+    private final Map<Saveable, Long> pending = new LinkedHashMap<Saveable, Long>();
+    
+    /**
+     * Serializes saves, so the flush on shutdown does not race with the background thread.
+     */
+    private final Object saveLock = new Object();
+    
+    private final ScheduledExecutorService executor;
+    
+    /**
+     * Indicates that a flush task is scheduled. Guarded by {@code this}.
+     */
+    private boolean flushScheduled;
+
+    private OwnershipPersistenceQueue() {
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            private final ThreadFactory delegate = new DaemonThreadFactory();
+            public Thread newThread(Runnable r) {
+                Thread t = delegate.newThread(r);
+                t.setName("Ownership persistence queue");
+                return t;
+            }
+        });
+    }
+    
+    public static @Nonnull OwnershipPersistenceQueue getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Schedules the save of the object.
+     * @param saveable Object to be saved
+     * @throws IOException Save error. Thrown in the synchronous mode only
+     */
+    public void schedule(@Nonnull Saveable saveable) throws IOException {
+        if (DELAY_MS <= 0) {
+            synchronized (saveLock) {
+                saveable.save();
+            }
+            return;
+        }
+        
+        synchronized (this) {
+            if (!pending.containsKey(saveable)) {
+                pending.put(saveable, System.currentTimeMillis() + DELAY_MS);
+            }
+            if (!flushScheduled) {
+                flushScheduled = true;
+                executor.schedule(new Runnable() {
+                    public void run() {
+                        flushExpired();
+                    }
+                }, DELAY_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+    
+    /**
+     * Drops pending saves of the item and its children.
+     * Should be invoked on the item deletion, otherwise the save would
+     * recreate the configuration file.
+     * @param item Deleted item
+     */
+    public synchronized void cancel(@Nonnull Item item) {
+        final String fullName = item.getFullName();
+        final String prefix = fullName + "/";
+        final Iterator<Saveable> it = pending.keySet().iterator();
+        while (it.hasNext()) {
+            final Saveable s = it.next();
+            if (s instanceof Item) {
+                final String name = ((Item) s).getFullName();
+                if (name.equals(fullName) || name.startsWith(prefix)) {
+                    it.remove();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Gets number of pending saves.
+     * @return Number of objects, which have not been saved yet
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+    
+    /**
+     * Saves all pending objects in the calling thread.
+     */
+    public void flush() {
+        save(drain(Long.MAX_VALUE));
+    }
+    
+    private void flushExpired() {
+        save(drain(System.currentTimeMillis()));
+        
+        synchronized (this) {
+            flushScheduled = false;
+            if (!pending.isEmpty()) {
+                long nextDeadline = pending.values().iterator().next();
+                long delay = Math.max(0, nextDeadline - System.currentTimeMillis());
+                flushScheduled = true;
+                executor.schedule(new Runnable() {
+                    public void run() {
+                        flushExpired();
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+    
+    /**
+     * Removes objects, which should be saved before the specified time.
+     * Deadlines grow in the insertion order, so the scan stops on the first 
+     * non-expired entry.
+     */
+    @Nonnull
+    private synchronized List<Saveable> drain(long now) {
+        final List<Saveable> res = new ArrayList<Saveable>();
+        final Iterator<Map.Entry<Saveable, Long>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<Saveable, Long> entry = it.next();
+            if (entry.getValue() > now) {
+                break;
+            }
+            res.add(entry.getKey());
+            it.remove();
+        }
+        return res;
+    }
+    
+    private void save(@Nonnull List<Saveable> saveables) {
+        synchronized (saveLock) {
+            for (Saveable s : saveables) {
+                try {
+                    s.save();
+                } catch (IOException ex) {
+                    LOGGER.log(Level.WARNING, "Cannot save the ownership of " + s, ex);
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Cannot save the ownership of " + s, ex);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.queue;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.NodeOwnerHelper;
+import hudson.model.Job;
+import hudson.model.LoadBalancer;
+import hudson.model.Node;
+import hudson.model.Queue;
+import hudson.model.queue.MappingWorksheet;
+import hudson.model.queue.MappingWorksheet.ExecutorChunk;
+import hudson.model.queue.MappingWorksheet.Mapping;
+import hudson.model.queue.MappingWorksheet.WorkChunk;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.ownership.model.index.OwnershipIndex;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * {@link LoadBalancer}, which prefers nodes owned by owners of the job.
+ * <p>
+ * Nodes get the following scores:
+ * <ul>
+ *   <li>{@link #SCORE_OWNER} - the job owner owns the node</li>
+ *   <li>{@link #SCORE_COOWNER} - the node is owned by a job co-owner 
+ *       or the job owner co-owns the node</li>
+ *   <li>0 - no ownership match</li>
+ * </ul>
+ * The balancer assigns each work chunk to the idle executor chunk with the best
+ * non-zero score. If there is no such chunk (e.g. owned nodes are busy or 
+ * the job has no owner), the decision is delegated to the original 
+ * load balancer.
+ * Ownership info is being retrieved from {@link OwnershipIndex}, 
+ * so the lookup costs O(1) per candidate.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class OwnershipLoadBalancer extends LoadBalancer {
+    
+    private static final Logger LOGGER = Logger.getLogger(OwnershipLoadBalancer.class.getName());
+    
+    static final int SCORE_OWNER = 2;
+    static final int SCORE_COOWNER = 1;
+    
+    /**
+     * Load balancer instance (sanitized by {@link Queue}), which has been installed.
+     */
+    @CheckForNull
+    private static LoadBalancer installed;
+    
+    /**
+     * Installed instance of the load balancer.
+     */
+    @CheckForNull
+    private static OwnershipLoadBalancer installedBalancer;
+    
+    @Nonnull
+    private final LoadBalancer fallback;
+
+    /*package*/ OwnershipLoadBalancer(@Nonnull LoadBalancer fallback) {
+        this.fallback = fallback;
+    }
+
+    @Nonnull
+    public LoadBalancer getFallback() {
+        return fallback;
+    }
+    
+    @Override
+    public Mapping map(Queue.Task task, MappingWorksheet worksheet) {
+        final OwnershipDescription jobOwnership = getJobOwnership(task);
+        if (!jobOwnership.isOwnershipEnabled()) {
+            return fallback.map(task, worksheet);
+        }
+        
+        final Mapping m = worksheet.new Mapping();
+        for (int i = 0; i < worksheet.works.size(); i++) {
+            final WorkChunk wc = worksheet.works(i);
+            ExecutorChunk best = null;
+            int bestScore = 0;
+            for (ExecutorChunk ec : wc.applicableExecutorChunks()) {
+                final int score = getScore(jobOwnership, ec.node);
+                if (score > bestScore) {
+                    best = ec;
+                    bestScore = score;
+                    if (score == SCORE_OWNER) {
+                        break; // Cannot be better
+                    }
+                }
+            }
+            
+            if (best == null) { // Owned nodes are not available
+                return fallback.map(task, worksheet);
+            }
+            m.assign(i, best);
+        }
+        
+        return m.isCompletelyValid() ? m : fallback.map(task, worksheet);
+    }
+    
+    @Nonnull
+    private static OwnershipDescription getJobOwnership(@Nonnull Queue.Task task) {
+        if (!(task instanceof Job)) {
+            return OwnershipDescription.DISABLED_DESCR;
+        }
+        
+        final Job<?, ?> job = (Job<?, ?>) task;
+        final OwnershipIndex index = OwnershipIndex.getInstance();
+        if (index.isReady()) {
+            final OwnershipDescription descr = index.getJobOwnership(job.getFullName());
+            return descr != null ? descr : OwnershipDescription.DISABLED_DESCR;
+        }
+        return JobOwnerHelper.Instance.getOwnershipDescription(job);
+    }
+    
+    @Nonnull
+    private static OwnershipDescription getNodeOwnership(@Nonnull Node node) {
+        final OwnershipIndex index = OwnershipIndex.getInstance();
+        if (index.isReady()) {
+            final OwnershipDescription descr = index.getNodeOwnership(node.getNodeName());
+            return descr != null ? descr : OwnershipDescription.DISABLED_DESCR;
+        }
+        return NodeOwnerHelper.Instance.getOwnershipDescription(node);
+    }
+    
+    /**
+     * Calculates the ownership affinity of the node.
+     * @param jobOwnership Ownership of the job
+     * @param node Node to be checked
+     * @return Score of the node. 0 means no affinity
+     */
+    /*package*/ static int getScore(@Nonnull OwnershipDescription jobOwnership, @CheckForNull Node node) {
+        if (node == null) {
+            return 0;
+        }
+        final OwnershipDescription nodeOwnership = getNodeOwnership(node);
+        if (!nodeOwnership.isOwnershipEnabled()) {
+            return 0;
+        }
+        
+        final String jobOwner = jobOwnership.getPrimaryOwnerId();
+        final String nodeOwner = nodeOwnership.getPrimaryOwnerId();
+        if (jobOwner != null && jobOwner.equals(nodeOwner)) {
+            return SCORE_OWNER;
+        }
+        if (jobOwnership.isCoOwner(nodeOwner) || nodeOwnership.isCoOwner(jobOwner)) {
+            return SCORE_COOWNER;
+        }
+        return 0;
+    }
+    
+    /**
+     * Installs or uninstalls the load balancer.
+     * @param enabled true if the load balancer should be installed
+     */
+    public static synchronized void configure(boolean enabled) {
+        final Jenkins j = Jenkins.getInstance();
+        final Queue queue = j != null ? j.getQueue() : null;
+        if (queue == null) {
+            return; // Will be handled on the next call
+        }
+        
+        final LoadBalancer current = queue.getLoadBalancer();
+        final boolean isInstalled = installedBalancer != null && installed == current;
+        if (enabled && !isInstalled) {
+            installedBalancer = new OwnershipLoadBalancer(current);
+            queue.setLoadBalancer(installedBalancer);
+            installed = queue.getLoadBalancer();
+            LOGGER.log(Level.INFO, "Ownership-based load balancer has been installed");
+        } else if (!enabled && isInstalled) {
+            // Queue sanitizes balancers, so we should find the original instance
+            queue.setLoadBalancer(installedBalancer.getFallback());
+            installed = null;
+            installedBalancer = null;
+            LOGGER.log(Level.INFO, "Ownership-based load balancer has been uninstalled");
+        }
+    }
+}
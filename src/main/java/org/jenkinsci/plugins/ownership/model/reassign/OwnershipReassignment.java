@@ -0,0 +1,367 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.reassign;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipPlugin;
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.NodeOwnerHelper;
+import hudson.model.Computer;
+import hudson.model.Job;
+import hudson.model.Node;
+import hudson.security.AccessControlled;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.ownership.model.events.OwnershipChangeDispatcher;
+import org.jenkinsci.plugins.ownership.model.index.OwnershipIndex;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Replaces an owner or co-owner of jobs and nodes by another sid.
+ * <p>
+ * Affected items are being retrieved from {@link OwnershipIndex}, so there is 
+ * no need to scan the whole instance. The reassignment is being planned in the 
+ * caller's thread (permissions are checked here) and then executed by 
+ * {@link OwnershipReassignmentEngine}.
+ * Job configurations are not being written by the reassignment itself, 
+ * the active {@link org.jenkinsci.plugins.ownership.model.store.OwnershipStore} 
+ * coalesces and serializes the writes.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class OwnershipReassignment {
+    
+    private static final Logger LOGGER = Logger.getLogger(OwnershipReassignment.class.getName());
+    
+    public static enum State {
+        PLANNED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+    
+    private final String fromSid;
+    private final String toSid;
+    private final ReassignmentScope scope;
+    private final boolean dryRun;
+    private final List<Job<?, ?>> jobs;
+    private final List<Node> nodes;
+    private final int skipped;
+    @CheckForNull
+    private final String initiator;
+    
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final Map<String, String> failures = Collections.synchronizedMap(new TreeMap<String, String>());
+    private volatile State state = State.PLANNED;
+    private volatile boolean cancelled;
+    private volatile long startTime;
+    private volatile long finishTime;
+
+    private OwnershipReassignment(@Nonnull String fromSid, @Nonnull String toSid, 
+            @Nonnull ReassignmentScope scope, boolean dryRun,
+            @Nonnull List<Job<?, ?>> jobs, @Nonnull List<Node> nodes, int skipped,
+            @CheckForNull String initiator) {
+        this.fromSid = fromSid;
+        this.toSid = toSid;
+        this.scope = scope;
+        this.dryRun = dryRun;
+        this.jobs = jobs;
+        this.nodes = nodes;
+        this.skipped = skipped;
+        this.initiator = initiator;
+    }
+    
+    /**
+     * Plans the reassignment.
+     * Items, which cannot be managed by the current user, are being skipped.
+     * @param fromSid Owner to be replaced
+     * @param toSid New owner
+     * @param scope Scope of the reassignment
+     * @param dryRun Plan only, the reassignment cannot be executed
+     * @return Planned reassignment
+     */
+    @Nonnull
+    public static OwnershipReassignment plan(@Nonnull String fromSid, @Nonnull String toSid, 
+            @Nonnull ReassignmentScope scope, boolean dryRun) {
+        final Jenkins jenkins = Jenkins.getInstance();
+        final OwnershipIndex index = OwnershipIndex.getInstance();
+        if (!index.isReady()) {
+            index.rebuild();
+        }
+        
+        int skipped = 0;
+        final List<Job<?, ?>> jobs = new ArrayList<Job<?, ?>>();
+        if (scope.isIncludeJobs()) {
+            final List<String> roots = scope.resolveRoots();
+            for (String fullName : index.getOwnedJobs(fromSid, true)) {
+                final Job<?, ?> job = jenkins.getItemByFullName(fullName, Job.class);
+                if (job == null || !ReassignmentScope.matches(job, roots)) {
+                    continue;
+                }
+                if (!job.hasPermission(OwnershipPlugin.MANAGE_ITEMS_OWNERSHIP)) {
+                    skipped++;
+                    continue;
+                }
+                jobs.add(job);
+            }
+        }
+        
+        final List<Node> nodes = new ArrayList<Node>();
+        if (scope.isIncludeNodes()) {
+            for (String nodeName : index.getOwnedNodes(fromSid, true)) {
+                final Node node = nodeName.length() == 0 ? jenkins : jenkins.getNode(nodeName);
+                if (node == null) {
+                    continue;
+                }
+                final Computer c = node.toComputer();
+                final AccessControlled target = c != null ? c : jenkins;
+                if (!target.hasPermission(OwnershipPlugin.MANAGE_SLAVES_OWNERSHIP)) {
+                    skipped++;
+                    continue;
+                }
+                nodes.add(node);
+            }
+        }
+        
+        return new OwnershipReassignment(fromSid, toSid, scope, dryRun, jobs, nodes, skipped,
+                OwnershipChangeDispatcher.getCurrentUserId());
+    }
+    
+    /**
+     * Replaces the sid in the ownership description.
+     * @param descr Description to be modified
+     * @param fromSid Owner to be replaced
+     * @param toSid New owner
+     * @return New description or the original one if it does not reference fromSid
+     */
+    @Nonnull
+    public static OwnershipDescription reassign(@Nonnull OwnershipDescription descr, 
+            @Nonnull String fromSid, @Nonnull String toSid) {
+        String primaryOwnerId = descr.getPrimaryOwnerId();
+        final Set<String> coowners = new TreeSet<String>(descr.getCoownersIds());
+        boolean changed = false;
+        
+        if (fromSid.equals(primaryOwnerId)) {
+            primaryOwnerId = toSid;
+            changed = true;
+        }
+        if (coowners.remove(fromSid)) {
+            coowners.add(toSid);
+            changed = true;
+        }
+        if (!changed) {
+            return descr;
+        }
+        
+        coowners.remove(primaryOwnerId);
+        return OwnershipDescription.intern(new OwnershipDescription(
+                descr.isOwnershipEnabled(), primaryOwnerId, coowners));
+    }
+    
+    /**
+     * Reassigns a subset of jobs.
+     * The processing stops once the reassignment is cancelled.
+     * @param batch Jobs to be processed
+     */
+    /*package*/ void reassignJobs(@Nonnull List<Job<?, ?>> batch) {
+        for (Job<?, ?> job : batch) {
+            if (cancelled) {
+                return;
+            }
+            final OwnershipDescription current = JobOwnerHelper.Instance.getOwnershipDescription(job);
+            final OwnershipDescription updated = reassign(current, fromSid, toSid);
+            if (updated != current) {
+                try {
+                    JobOwnerHelper.setOwnership(job, updated);
+                } catch (IOException ex) {
+                    onFailure(job.getFullName(), ex);
+                }
+            }
+            processed.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Reassigns nodes.
+     * All nodes are being persisted by a single configuration save.
+     */
+    /*package*/ void reassignNodes() {
+        if (nodes.isEmpty()) {
+            return;
+        }
+        
+        boolean modified = false;
+        for (Node node : nodes) {
+            final OwnershipDescription current = NodeOwnerHelper.Instance.getOwnershipDescription(node);
+            final OwnershipDescription updated = reassign(current, fromSid, toSid);
+            if (updated != current) {
+                try {
+                    NodeOwnerHelper.setOwnership(node, updated, false);
+                    modified = true;
+                } catch (IOException ex) {
+                    onFailure(getNodeKey(node), ex);
+                }
+            }
+            processed.incrementAndGet();
+        }
+        
+        if (modified) {
+            try {
+                Jenkins.getInstance().save();
+            } catch (IOException ex) {
+                onFailure("Jenkins configuration", ex);
+            }
+        }
+    }
+    
+    private void onFailure(@Nonnull String itemName, @Nonnull Exception ex) {
+        LOGGER.log(Level.WARNING, "Cannot reassign the ownership of " + itemName, ex);
+        failed.incrementAndGet();
+        failures.put(itemName, ex.getMessage());
+    }
+    
+    private static @Nonnull String getNodeKey(@Nonnull Node node) {
+        return node instanceof Jenkins ? "(master)" : node.getNodeName();
+    }
+    
+    /*package*/ void onStart() {
+        startTime = System.currentTimeMillis();
+        state = State.RUNNING;
+    }
+    
+    /**
+     * Stops processing of remaining jobs.
+     */
+    /*package*/ void cancel() {
+        cancelled = true;
+    }
+    
+    /*package*/ void onFinish(boolean success) {
+        finishTime = System.currentTimeMillis();
+        state = success ? State.COMPLETED : State.FAILED;
+    }
+
+    public @Nonnull String getFromSid() {
+        return fromSid;
+    }
+
+    public @Nonnull String getToSid() {
+        return toSid;
+    }
+
+    public @Nonnull ReassignmentScope getScope() {
+        return scope;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+    
+    /**
+     * Gets the user, who has planned the reassignment.
+     * @return User ID or null if the reassignment has been planned by the system
+     */
+    @CheckForNull
+    public String getInitiator() {
+        return initiator;
+    }
+
+    /*package*/ @Nonnull List<Job<?, ?>> getJobs() {
+        return jobs;
+    }
+    
+    public @Nonnull List<String> getJobNames() {
+        final List<String> res = new ArrayList<String>(jobs.size());
+        for (Job<?, ?> job : jobs) {
+            res.add(job.getFullName());
+        }
+        return res;
+    }
+    
+    public @Nonnull List<String> getNodeNames() {
+        final List<String> res = new ArrayList<String>(nodes.size());
+        for (Node node : nodes) {
+            res.add(getNodeKey(node));
+        }
+        return res;
+    }
+
+    public @Nonnull State getState() {
+        return state;
+    }
+    
+    public int getTotal() {
+        return jobs.size() + nodes.size();
+    }
+    
+    public int getProcessed() {
+        return processed.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+    
+    /**
+     * Gets number of items, which have been skipped due to missing permissions.
+     * @return Number of skipped items
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+    
+    public @Nonnull Map<String, String> getFailures() {
+        synchronized (failures) {
+            return new TreeMap<String, String>(failures);
+        }
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getFinishTime() {
+        return finishTime;
+    }
+    
+    @Override
+    public String toString() {
+        return "Reassignment " + fromSid + " -> " + toSid + " (" + scope + ")";
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.reassign;
+
+import hudson.model.Job;
+import hudson.security.ACL;
+import hudson.util.DaemonThreadFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Executes {@link OwnershipReassignment}s in background.
+ * <p>
+ * Jobs are being split into batches, which are processed in parallel.
+ * Config writes are being deferred to the ownership store, which coalesces 
+ * and serializes them. If a batch fails, remaining batches are being cancelled.
+ * The reassignment finishes only when all batches stop, 
+ * so only one reassignment may modify items at once.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class OwnershipReassignmentEngine {
+    
+    private static final Logger LOGGER = Logger.getLogger(OwnershipReassignmentEngine.class.getName());
+    
+    /**
+     * Number of threads, which process batches.
+     */
+    private static final int THREADS = Integer.getInteger(
+            OwnershipReassignmentEngine.class.getName() + ".threads", 4);
+    
+    /**
+     * Number of jobs in a single batch.
+     */
+    private static final int BATCH_SIZE = Integer.getInteger(
+            OwnershipReassignmentEngine.class.getName() + ".batchSize", 50);
+    
+    private static final OwnershipReassignmentEngine INSTANCE = new OwnershipReassignmentEngine();
+    
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+    
+    @CheckForNull
+    private OwnershipReassignment current;
+
+    private OwnershipReassignmentEngine() {
+        this.coordinator = Executors.newSingleThreadExecutor(new EngineThreadFactory("coordinator"));
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(THREADS, THREADS, 
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), 
+                new EngineThreadFactory("worker"));
+        pool.allowCoreThreadTimeOut(true);
+        this.workers = pool;
+    }
+    
+    public static @Nonnull OwnershipReassignmentEngine getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Gets the running or the last finished reassignment.
+     * @return Reassignment or null if nothing has been started
+     */
+    @CheckForNull
+    public synchronized OwnershipReassignment getCurrent() {
+        return current;
+    }
+    
+    /**
+     * Starts the reassignment in background.
+     * @param reassignment Planned reassignment
+     * @throws IllegalStateException Another reassignment is running 
+     *      or the reassignment is a dry-run
+     */
+    public synchronized void start(@Nonnull final OwnershipReassignment reassignment) 
+            throws IllegalStateException {
+        if (reassignment.isDryRun()) {
+            throw new IllegalStateException("Dry-run reassignments cannot be started");
+        }
+        if (reassignment.getState() != OwnershipReassignment.State.PLANNED) {
+            throw new IllegalStateException("The reassignment has been already started");
+        }
+        if (current != null && current.getState() == OwnershipReassignment.State.RUNNING) {
+            throw new IllegalStateException("Another reassignment is running: " + current);
+        }
+        
+        current = reassignment;
+        reassignment.onStart();
+        coordinator.submit(new Runnable() {
+            public void run() {
+                execute(reassignment);
+            }
+        });
+    }
+    
+    private void execute(@Nonnull final OwnershipReassignment reassignment) {
+        LOGGER.log(Level.INFO, "Starting {0}", reassignment);
+        // Permissions have been checked during the planning
+        final SecurityContext initialContext = ACL.impersonate(ACL.SYSTEM);
+        boolean success = false;
+        final List<Future<?>> futures = new ArrayList<Future<?>>();
+        try {
+            final List<Job<?, ?>> jobs = reassignment.getJobs();
+            for (int start = 0; start < jobs.size(); start += BATCH_SIZE) {
+                final List<Job<?, ?>> batch = jobs.subList(start, Math.min(start + BATCH_SIZE, jobs.size()));
+                futures.add(workers.submit(new Runnable() {
+                    public void run() {
+                        final SecurityContext workerContext = ACL.impersonate(ACL.SYSTEM);
+                        try {
+                            reassignment.reassignJobs(batch);
+                        } finally {
+                            SecurityContextHolder.setContext(workerContext);
+                        }
+                    }
+                }));
+            }
+            
+            if (awaitBatches(reassignment, futures)) {
+                reassignment.reassignNodes();
+                success = true;
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Failed " + reassignment, ex);
+            reassignment.cancel();
+            awaitBatches(reassignment, futures);
+        } finally {
+            SecurityContextHolder.setContext(initialContext);
+            reassignment.onFinish(success);
+            LOGGER.log(Level.INFO, "Finished {0}: processed={1}, failed={2}", new Object[] {
+                reassignment, reassignment.getProcessed(), reassignment.getFailed()});
+        }
+    }
+    
+    /**
+     * Waits till all batches stop.
+     * Once a batch fails or the coordinator gets interrupted, 
+     * remaining batches are being cancelled, but the method still waits for 
+     * running ones, so they do not modify items after the reassignment finishes.
+     * @return true if all batches have been completed successfully
+     */
+    private static boolean awaitBatches(@Nonnull OwnershipReassignment reassignment, 
+            @Nonnull List<Future<?>> futures) {
+        boolean success = true;
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            boolean stopped = false;
+            while (!stopped) {
+                try {
+                    future.get();
+                    stopped = true;
+                } catch (CancellationException ex) {
+                    stopped = true;
+                } catch (ExecutionException ex) {
+                    LOGGER.log(Level.WARNING, "Failed " + reassignment, ex.getCause());
+                    stopped = true;
+                    if (success) {
+                        success = false;
+                        cancelBatches(reassignment, futures);
+                    }
+                } catch (InterruptedException ex) {
+                    // The batch may be still running, hence the wait continues
+                    LOGGER.log(Level.WARNING, "Interrupted {0}, waiting for running batches", reassignment);
+                    interrupted = true;
+                    if (success) {
+                        success = false;
+                        cancelBatches(reassignment, futures);
+                    }
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return success;
+    }
+    
+    private static void cancelBatches(@Nonnull OwnershipReassignment reassignment, 
+            @Nonnull List<Future<?>> futures) {
+        reassignment.cancel();
+        for (Future<?> future : futures) {
+            future.cancel(false);
+        }
+    }
+    
+    private static final class EngineThreadFactory implements ThreadFactory {
+        private final ThreadFactory delegate = new DaemonThreadFactory();
+        private final AtomicInteger counter = new AtomicInteger();
+        private final String kind;
+
+        EngineThreadFactory(@Nonnull String kind) {
+            this.kind = kind;
+        }
+        
+        public Thread newThread(Runnable r) {
+            Thread t = delegate.newThread(r);
+            t.setName("Ownership reassignment " + kind + " #" + counter.incrementAndGet());
+            return t;
+        }
+    }
+}
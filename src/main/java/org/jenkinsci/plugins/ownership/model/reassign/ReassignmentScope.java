@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.reassign;
+
+import hudson.model.Job;
+import hudson.model.TopLevelItem;
+import hudson.model.View;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Defines items, which are affected by {@link OwnershipReassignment}.
+ * If neither folders nor views are specified, all jobs are in the scope.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class ReassignmentScope {
+    
+    private final boolean includeJobs;
+    private final boolean includeNodes;
+    private final List<String> folders;
+    private final List<String> views;
+
+    /**
+     * Constructor.
+     * @param includeJobs Reassign jobs
+     * @param includeNodes Reassign nodes
+     * @param folders Full names of folders to be processed. 
+     *      Use null or empty list to process all folders.
+     * @param views Names of top-level views to be processed
+     *      Use null or empty list to ignore views.
+     */
+    public ReassignmentScope(boolean includeJobs, boolean includeNodes, 
+            @CheckForNull List<String> folders, @CheckForNull List<String> views) {
+        this.includeJobs = includeJobs;
+        this.includeNodes = includeNodes;
+        this.folders = folders != null ? new ArrayList<String>(folders) : Collections.<String>emptyList();
+        this.views = views != null ? new ArrayList<String>(views) : Collections.<String>emptyList();
+    }
+    
+    public static @Nonnull ReassignmentScope all() {
+        return new ReassignmentScope(true, true, null, null);
+    }
+
+    public boolean isIncludeJobs() {
+        return includeJobs;
+    }
+
+    public boolean isIncludeNodes() {
+        return includeNodes;
+    }
+
+    public @Nonnull List<String> getFolders() {
+        return Collections.unmodifiableList(folders);
+    }
+
+    public @Nonnull List<String> getViews() {
+        return Collections.unmodifiableList(views);
+    }
+    
+    /**
+     * Resolves item prefixes, which match the scope.
+     * Views are being converted to full names of their items.
+     * @return List of full names. Null if all jobs match the scope
+     */
+    @CheckForNull
+    /*package*/ List<String> resolveRoots() {
+        if (folders.isEmpty() && views.isEmpty()) {
+            return null;
+        }
+        
+        final List<String> roots = new ArrayList<String>(folders);
+        final Jenkins jenkins = Jenkins.getInstance();
+        for (String viewName : views) {
+            final View view = jenkins.getView(viewName);
+            if (view == null) {
+                continue;
+            }
+            for (TopLevelItem item : view.getItems()) {
+                roots.add(item.getFullName());
+            }
+        }
+        return roots;
+    }
+    
+    /**
+     * Checks if the job belongs to the scope.
+     * @param job Job to be checked
+     * @param roots Roots from {@link #resolveRoots()}
+     * @return true if the job matches the scope
+     */
+    /*package*/ static boolean matches(@Nonnull Job<?, ?> job, @CheckForNull List<String> roots) {
+        if (roots == null) {
+            return true;
+        }
+        
+        final String fullName = job.getFullName();
+        for (String root : roots) {
+            if (fullName.equals(root) || fullName.startsWith(root + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public String toString() {
+        return "jobs=" + includeJobs + ", nodes=" + includeNodes 
+                + ", folders=" + folders + ", views=" + views;
+    }
+}
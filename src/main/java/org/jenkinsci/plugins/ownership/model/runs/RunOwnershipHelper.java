@@ -26,8 +26,7 @@ package org.jenkinsci.plugins.ownership.model.runs;
 
 import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
 import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
-import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerJobProperty;
-import com.synopsys.arc.jenkins.plugins.ownership.nodes.OwnerNodeProperty;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.NodeOwnerHelper;
 import com.synopsys.arc.jenkins.plugins.ownership.util.AbstractOwnershipHelper;
 import com.synopsys.arc.jenkins.plugins.ownership.util.UserStringFormatter;
 import hudson.model.AbstractBuild;
@@ -84,8 +83,7 @@ public class RunOwnershipHelper extends AbstractOwnershipHelper<Run> {
             @CheckForNull BuildListener listener, 
             boolean injectJobOwnership, boolean injectNodeOwnership) {
         if (injectJobOwnership) {
-            JobOwnerJobProperty prop = JobOwnerHelper.getOwnerProperty(build.getParent());  
-            OwnershipDescription descr = prop != null ? prop.getOwnership() : OwnershipDescription.DISABLED_DESCR;
+            OwnershipDescription descr = JobOwnerHelper.Instance.getOwnershipDescription(build.getParent());
             getVariables(descr, target, "JOB");
         }
              
@@ -100,8 +98,7 @@ public class RunOwnershipHelper extends AbstractOwnershipHelper<Run> {
                 return; // Ignore the error
             }
             
-            OwnerNodeProperty prop = node.getNodeProperties().get(OwnerNodeProperty.class);
-            OwnershipDescription descr = prop!=null ? prop.getOwnership() : OwnershipDescription.DISABLED_DESCR;
+            OwnershipDescription descr = NodeOwnerHelper.Instance.getOwnershipDescription(node);
             getVariables(descr, target, "NODE");
         }
     }
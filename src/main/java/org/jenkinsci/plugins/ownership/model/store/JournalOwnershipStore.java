@@ -0,0 +1,506 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.store;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.NodeOwnerHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.OwnerNodeProperty;
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.Node;
+import hudson.util.AtomicFileWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.ownership.model.events.OwnershipChangeDispatcher;
+
+/**
+ * Keeps ownership in an append-only journal and a compacted snapshot.
+ * <p>
+ * Both files contain one JSON record per line. The store is being loaded 
+ * by a single sequential read of the snapshot and the journal, each
+ * modification appends a small record to the journal.
+ * Once the journal grows, the state is being written to a new snapshot
+ * and the journal gets truncated.
+ * Matrix configurations are being stored as their parent projects.
+ * Records of deleted nodes are being removed, renamed nodes keep the ownership 
+ * of their properties, which is being imported to the journal.
+ * <p>
+ * Files are located in <code>${JENKINS_HOME}/ownership-store</code>, the
+ * location can be changed by the <code>JournalOwnershipStore.dir</code> 
+ * system property.
+ * Use the migration in {@link OwnershipStoreMigration} to import ownership
+ * from job and node properties.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Extension
+public class JournalOwnershipStore extends OwnershipStore {
+    
+    private static final Logger LOGGER = Logger.getLogger(JournalOwnershipStore.class.getName());
+    
+    public static final String ID = "journal";
+    
+    static final String SNAPSHOT_FILE = "snapshot.jsonl";
+    static final String JOURNAL_FILE = "journal.jsonl";
+    
+    private static final String TYPE_JOB = "job";
+    private static final String TYPE_NODE = "node";
+    private static final String OP_SET = "set";
+    private static final String OP_REMOVE = "remove";
+    private static final String OP_RENAME = "rename";
+    
+    /**
+     * Number of journal records, which triggers the compaction.
+     */
+    private static final int COMPACTION_THRESHOLD = Integer.getInteger(
+            JournalOwnershipStore.class.getName() + ".compactionThreshold", 1000);
+    
+    private final Map<String, OwnershipDescription> jobs = new ConcurrentHashMap<String, OwnershipDescription>();
+    private final Map<String, OwnershipDescription> nodes = new ConcurrentHashMap<String, OwnershipDescription>();
+    
+    private volatile boolean loaded;
+    
+    /**
+     * Number of records in the journal. Guarded by {@code this}.
+     */
+    private int journalRecords;
+    @CheckForNull
+    private Writer journal;
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public OwnershipDescription getJobOwnership(String fullName) {
+        ensureLoaded();
+        return jobs.get(fullName);
+    }
+
+    @Override
+    public OwnershipDescription getNodeOwnership(String nodeName) {
+        ensureLoaded();
+        return nodes.get(nodeName);
+    }
+
+    @Override
+    public void setJobOwnership(@Nonnull Job<?, ?> job, 
+            @CheckForNull OwnershipDescription descr) throws IOException {
+        // Matrix configurations take the ownership from the parent
+        final Job<?, ?> source = JobOwnerHelper.getOwnershipSource(job);
+        final String fullName = source.getFullName();
+        final OwnershipDescription oldOwnership = JobOwnerHelper.Instance.getOwnershipDescription(source);
+        final OwnershipDescription d = setJobOwnership(fullName, descr);
+        OwnershipChangeDispatcher.getInstance().jobChanged(fullName, oldOwnership, d);
+    }
+    
+    /**
+     * Stores the ownership of the job without notifications.
+     * @return Stored description
+     */
+    @Nonnull
+    /*package*/ OwnershipDescription setJobOwnership(@Nonnull String fullName, 
+            @CheckForNull OwnershipDescription descr) throws IOException {
+        final OwnershipDescription d = descr != null 
+                ? OwnershipDescription.intern(descr) : OwnershipDescription.DISABLED_DESCR;
+        synchronized (this) {
+            ensureLoaded();
+            append(toRecord(OP_SET, TYPE_JOB, fullName, d));
+            jobs.put(fullName, d);
+            compactIfRequired();
+        }
+        return d;
+    }
+
+    @Override
+    public void setNodeOwnership(@Nonnull Node node, 
+            @CheckForNull OwnershipDescription descr, boolean save) throws IOException {
+        final String nodeName = node.getNodeName();
+        final OwnershipDescription oldOwnership = NodeOwnerHelper.Instance.getOwnershipDescription(node);
+        final OwnershipDescription d = setNodeOwnership(nodeName, descr);
+        OwnershipChangeDispatcher.getInstance().nodeChanged(nodeName, oldOwnership, d);
+    }
+    
+    /**
+     * Stores the ownership of the node without notifications.
+     * @return Stored description
+     */
+    @Nonnull
+    /*package*/ OwnershipDescription setNodeOwnership(@Nonnull String nodeName, 
+            @CheckForNull OwnershipDescription descr) throws IOException {
+        final OwnershipDescription d = descr != null 
+                ? OwnershipDescription.intern(descr) : OwnershipDescription.DISABLED_DESCR;
+        synchronized (this) {
+            ensureLoaded();
+            append(toRecord(OP_SET, TYPE_NODE, nodeName, d));
+            nodes.put(nodeName, d);
+            compactIfRequired();
+        }
+        return d;
+    }
+
+    @Override
+    public synchronized void onRenamed(String oldFullName, String newFullName) {
+        ensureLoaded();
+        if (!renameWithin(oldFullName, newFullName)) {
+            return;
+        }
+        final JSONObject record = new JSONObject();
+        record.put("op", OP_RENAME);
+        record.put("type", TYPE_JOB);
+        record.put("name", oldFullName);
+        record.put("newName", newFullName);
+        appendQuietly(record);
+        compactIfRequired();
+    }
+
+    @Override
+    public synchronized void onDeleted(String fullName) {
+        ensureLoaded();
+        if (!removeWithin(fullName)) {
+            return;
+        }
+        final JSONObject record = new JSONObject();
+        record.put("op", OP_REMOVE);
+        record.put("type", TYPE_JOB);
+        record.put("name", fullName);
+        appendQuietly(record);
+        compactIfRequired();
+    }
+
+    @Override
+    public void onNodesChanged() {
+        final Jenkins j = Jenkins.getInstance();
+        if (j == null) {
+            return;
+        }
+        
+        final Map<String, OwnershipDescription> current = new HashMap<String, OwnershipDescription>();
+        current.put(j.getNodeName(), getPropertyOwnership(j));
+        for (Node node : j.getNodes()) {
+            current.put(node.getNodeName(), getPropertyOwnership(node));
+        }
+        updateNodes(current);
+    }
+    
+    @CheckForNull
+    private static OwnershipDescription getPropertyOwnership(@Nonnull Node node) {
+        final OwnerNodeProperty prop = NodeOwnerHelper.getOwnerProperty(node);
+        return prop != null ? prop.getPropertyOwnership() : null;
+    }
+    
+    /**
+     * Synchronizes node records with the current nodes.
+     * Records of missing nodes are being removed.
+     * Nodes without records (e.g. renamed ones) are being imported 
+     * if their properties define the ownership.
+     * @param current Ownership of node properties by node names
+     */
+    /*package*/ synchronized void updateNodes(@Nonnull Map<String, OwnershipDescription> current) {
+        ensureLoaded();
+        final List<String> removed = new ArrayList<String>();
+        for (String nodeName : nodes.keySet()) {
+            if (!current.containsKey(nodeName)) {
+                removed.add(nodeName);
+            }
+        }
+        for (String nodeName : removed) {
+            final JSONObject record = new JSONObject();
+            record.put("op", OP_REMOVE);
+            record.put("type", TYPE_NODE);
+            record.put("name", nodeName);
+            appendQuietly(record);
+            nodes.remove(nodeName);
+        }
+        
+        for (Map.Entry<String, OwnershipDescription> entry : current.entrySet()) {
+            final OwnershipDescription d = entry.getValue();
+            if (!nodes.containsKey(entry.getKey()) && OwnershipDescription.isEnabled(d)) {
+                final OwnershipDescription interned = OwnershipDescription.intern(d);
+                appendQuietly(toRecord(OP_SET, TYPE_NODE, entry.getKey(), interned));
+                nodes.put(entry.getKey(), interned);
+            }
+        }
+        compactIfRequired();
+    }
+    
+    /**
+     * Gets number of stored jobs.
+     * @return Number of jobs
+     */
+    public int getJobsCount() {
+        ensureLoaded();
+        return jobs.size();
+    }
+    
+    /**
+     * Gets number of stored nodes.
+     * @return Number of nodes
+     */
+    public int getNodesCount() {
+        ensureLoaded();
+        return nodes.size();
+    }
+    
+    /**
+     * Writes the current state to the snapshot and truncates the journal.
+     * @throws IOException Write error
+     */
+    public synchronized void compact() throws IOException {
+        ensureLoaded();
+        closeJournal();
+        
+        final File dir = getStoreDir();
+        final AtomicFileWriter w = new AtomicFileWriter(new File(dir, SNAPSHOT_FILE));
+        try {
+            for (Map.Entry<String, OwnershipDescription> entry : jobs.entrySet()) {
+                w.write(toRecord(OP_SET, TYPE_JOB, entry.getKey(), entry.getValue()).toString());
+                w.write('\n');
+            }
+            for (Map.Entry<String, OwnershipDescription> entry : nodes.entrySet()) {
+                w.write(toRecord(OP_SET, TYPE_NODE, entry.getKey(), entry.getValue()).toString());
+                w.write('\n');
+            }
+            w.commit();
+        } finally {
+            w.abort();
+        }
+        
+        // The snapshot includes all records, so the journal can be dropped
+        new FileOutputStream(new File(dir, JOURNAL_FILE), false).close();
+        journalRecords = 0;
+        LOGGER.log(Level.FINE, "Ownership store has been compacted: {0} jobs, {1} nodes", 
+                new Object[] {jobs.size(), nodes.size()});
+    }
+    
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                }
+            }
+        }
+    }
+    
+    private void load() {
+        final File dir = getStoreDir();
+        try {
+            read(new File(dir, SNAPSHOT_FILE));
+            journalRecords = read(new File(dir, JOURNAL_FILE));
+            LOGGER.log(Level.FINE, "Ownership store has been loaded: {0} jobs, {1} nodes", 
+                    new Object[] {jobs.size(), nodes.size()});
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, "Cannot load the ownership store from " + dir, ex);
+        }
+        loaded = true;
+        
+        compactIfRequired();
+    }
+    
+    /**
+     * Reads and applies records from the file.
+     * @return Number of read records
+     */
+    private int read(@Nonnull File file) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        
+        int records = 0;
+        final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() == 0) {
+                    continue;
+                }
+                try {
+                    apply(JSONObject.fromObject(line));
+                    records++;
+                } catch (JSONException ex) {
+                    // Most probably, the last record has not been written completely
+                    LOGGER.log(Level.WARNING, "Skipping malformed ownership record in {0}: {1}", 
+                            new Object[] {file, line});
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return records;
+    }
+    
+    private void apply(@Nonnull JSONObject record) {
+        final String op = record.getString("op");
+        final String type = record.getString("type");
+        final String name = record.getString("name");
+        if (OP_SET.equals(op)) {
+            final Map<String, OwnershipDescription> target = TYPE_NODE.equals(type) ? nodes : jobs;
+            target.put(name, fromRecord(record));
+        } else if (OP_REMOVE.equals(op)) {
+            if (TYPE_NODE.equals(type)) {
+                nodes.remove(name);
+            } else {
+                removeWithin(name);
+            }
+        } else if (OP_RENAME.equals(op)) {
+            renameWithin(name, record.getString("newName"));
+        }
+    }
+    
+    private boolean removeWithin(@Nonnull String fullName) {
+        boolean modified = jobs.remove(fullName) != null;
+        final String prefix = fullName + "/";
+        final Iterator<String> it = jobs.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().startsWith(prefix)) {
+                it.remove();
+                modified = true;
+            }
+        }
+        return modified;
+    }
+    
+    private boolean renameWithin(@Nonnull String oldFullName, @Nonnull String newFullName) {
+        final String prefix = oldFullName + "/";
+        final List<String> affected = new ArrayList<String>();
+        for (String name : jobs.keySet()) {
+            if (name.equals(oldFullName) || name.startsWith(prefix)) {
+                affected.add(name);
+            }
+        }
+        for (String name : affected) {
+            final OwnershipDescription d = jobs.remove(name);
+            if (d != null) {
+                jobs.put(newFullName + name.substring(oldFullName.length()), d);
+            }
+        }
+        return !affected.isEmpty();
+    }
+    
+    private void append(@Nonnull JSONObject record) throws IOException {
+        if (journal == null) {
+            final File dir = getStoreDir();
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Cannot create the ownership store directory " + dir);
+            }
+            journal = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(new File(dir, JOURNAL_FILE), true), "UTF-8"));
+        }
+        journal.write(record.toString());
+        journal.write('\n');
+        journal.flush();
+        journalRecords++;
+    }
+    
+    /**
+     * Compacts the store if the journal is too big.
+     * Should be invoked once the record is applied to the in-memory state, 
+     * because the state becomes the new snapshot.
+     * Failures are not being propagated, the journal remains valid.
+     */
+    private void compactIfRequired() {
+        if (journalRecords < COMPACTION_THRESHOLD) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Cannot compact the ownership store in " + getStoreDir(), ex);
+        }
+    }
+    
+    private void appendQuietly(@Nonnull JSONObject record) {
+        try {
+            append(record);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Cannot write the ownership record " + record, ex);
+        }
+    }
+    
+    private void closeJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+    
+    @Nonnull
+    private static JSONObject toRecord(@Nonnull String op, @Nonnull String type, 
+            @Nonnull String name, @Nonnull OwnershipDescription descr) {
+        final JSONObject record = new JSONObject();
+        record.put("op", op);
+        record.put("type", type);
+        record.put("name", name);
+        record.put("enabled", descr.isOwnershipEnabled());
+        if (descr.isOwnershipEnabled()) {
+            record.put("owner", descr.getPrimaryOwnerId());
+        }
+        record.put("coOwners", JSONArray.fromObject(descr.getCoownersIds()));
+        return record;
+    }
+    
+    @Nonnull
+    private static OwnershipDescription fromRecord(@Nonnull JSONObject record) {
+        final List<String> coOwners = new ArrayList<String>();
+        final JSONArray coOwnersJSON = record.optJSONArray("coOwners");
+        if (coOwnersJSON != null) {
+            for (Object coOwner : coOwnersJSON) {
+                coOwners.add(coOwner.toString());
+            }
+        }
+        return OwnershipDescription.intern(new OwnershipDescription(
+                record.optBoolean("enabled", true), record.optString("owner", null), coOwners));
+    }
+    
+    @Nonnull
+    private static File getStoreDir() {
+        final String dir = System.getProperty(JournalOwnershipStore.class.getName() + ".dir");
+        return dir != null ? new File(dir) : new File(Jenkins.getInstance().getRootDir(), "ownership-store");
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.store;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import hudson.ExtensionList;
+import hudson.ExtensionPoint;
+import hudson.model.Job;
+import hudson.model.Node;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+
+/**
+ * Storage of ownership descriptions.
+ * <p>
+ * By default, the ownership is being stored in job and node properties 
+ * ({@link PropertyOwnershipStore}). Other stores keep descriptions outside
+ * of item configurations, so reading all owners does not require loading 
+ * and writing of the whole job configuration.
+ * The store is being selected by the <code>OwnershipStore.id</code> system property.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+public abstract class OwnershipStore implements ExtensionPoint {
+    
+    private static final Logger LOGGER = Logger.getLogger(OwnershipStore.class.getName());
+    
+    /**
+     * Identifier of the active store.
+     */
+    private static final String STORE_ID = System.getProperty(
+            OwnershipStore.class.getName() + ".id", PropertyOwnershipStore.ID);
+    
+    private static final OwnershipStore DEFAULT = new PropertyOwnershipStore();
+    
+    @CheckForNull
+    private static volatile OwnershipStore active;
+    
+    /**
+     * Gets identifier of the store.
+     * @return Store ID
+     */
+    @Nonnull
+    public abstract String getId();
+    
+    /**
+     * Checks if the store keeps ownership outside of item properties.
+     * @return true if item properties should not be used as a source of truth
+     */
+    public boolean isExternal() {
+        return true;
+    }
+    
+    /**
+     * Gets the stored ownership of the job.
+     * @param fullName Full name of the job
+     * @return Ownership or null if the job's property should be used
+     */
+    @CheckForNull
+    public abstract OwnershipDescription getJobOwnership(@Nonnull String fullName);
+    
+    /**
+     * Sets the ownership of the job.
+     * @param job Job to be modified
+     * @param descr Ownership to be set. Null drops the ownership
+     * @throws IOException Storage error
+     */
+    public abstract void setJobOwnership(@Nonnull Job<?, ?> job, 
+            @CheckForNull OwnershipDescription descr) throws IOException;
+    
+    /**
+     * Gets the stored ownership of the node.
+     * @param nodeName Name of the node
+     * @return Ownership or null if the node's property should be used
+     */
+    @CheckForNull
+    public abstract OwnershipDescription getNodeOwnership(@Nonnull String nodeName);
+    
+    /**
+     * Sets the ownership of the node.
+     * @param node Node to be modified
+     * @param descr Ownership to be set. Null drops the ownership
+     * @param save Persist the global configuration if required.
+     *      Bulk operations may save it once at the end.
+     * @throws IOException Storage error
+     */
+    public abstract void setNodeOwnership(@Nonnull Node node, 
+            @CheckForNull OwnershipDescription descr, boolean save) throws IOException;
+    
+    /**
+     * Handles the rename of the job or folder.
+     * @param oldFullName Old full name
+     * @param newFullName New full name
+     */
+    public void onRenamed(@Nonnull String oldFullName, @Nonnull String newFullName) {
+        // Do nothing by default
+    }
+    
+    /**
+     * Handles the deletion of the job or folder.
+     * @param fullName Full name of the deleted item
+     */
+    public void onDeleted(@Nonnull String fullName) {
+        // Do nothing by default
+    }
+    
+    /**
+     * Handles changes of the nodes configuration.
+     * Nodes may be added, removed or renamed.
+     * @since 0.6
+     */
+    public void onNodesChanged() {
+        // Do nothing by default
+    }
+    
+    /**
+     * Gets the active store.
+     * @return Store, which has been selected by the system property.
+     *      {@link PropertyOwnershipStore} if the store cannot be found
+     */
+    @Nonnull
+    public static OwnershipStore getActive() {
+        OwnershipStore store = active;
+        if (store != null) {
+            return store;
+        }
+        
+        final Jenkins j = Jenkins.getInstance();
+        if (j == null) {
+            return DEFAULT;
+        }
+        if (PropertyOwnershipStore.ID.equals(STORE_ID)) {
+            store = DEFAULT;
+        } else {
+            store = find(STORE_ID);
+            if (store == null) {
+                LOGGER.log(Level.WARNING, "Cannot find the ownership store {0}. "
+                        + "Item properties will be used", STORE_ID);
+                store = DEFAULT;
+            }
+        }
+        active = store;
+        return store;
+    }
+    
+    /**
+     * Finds the store by its ID.
+     * @param id Store ID
+     * @return Store or null if it cannot be found
+     */
+    @CheckForNull
+    public static OwnershipStore find(@Nonnull String id) {
+        if (PropertyOwnershipStore.ID.equals(id)) {
+            return DEFAULT;
+        }
+        for (OwnershipStore store : all()) {
+            if (id.equals(store.getId())) {
+                return store;
+            }
+        }
+        return null;
+    }
+    
+    @Nonnull
+    public static ExtensionList<OwnershipStore> all() {
+        return Jenkins.getInstance().getExtensionList(OwnershipStore.class);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.store;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerJobProperty;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.NodeOwnerHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.OwnerNodeProperty;
+import hudson.model.Job;
+import hudson.model.Node;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Copies ownership from job and node properties to an external {@link OwnershipStore}.
+ * Properties are not being modified, so the migration can be safely repeated.
+ * Ownership changes made while an external store is active are not written
+ * back to the properties, hence switching back to {@link PropertyOwnershipStore}
+ * loses them unless the ownership is migrated back manually.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class OwnershipStoreMigration {
+    
+    private static final Logger LOGGER = Logger.getLogger(OwnershipStoreMigration.class.getName());
+    
+    private final OwnershipStore target;
+    private int migratedJobs;
+    private int migratedNodes;
+    private int unchanged;
+    private final List<String> failures = new ArrayList<String>();
+
+    public OwnershipStoreMigration(@Nonnull OwnershipStore target) {
+        this.target = target;
+    }
+    
+    /**
+     * Runs the migration.
+     * Items, whose ownership is already stored in the target, are being skipped.
+     * @return this
+     */
+    @Nonnull
+    public OwnershipStoreMigration run() {
+        final Jenkins jenkins = Jenkins.getInstance();
+        for (Job<?, ?> job : jenkins.getAllItems(Job.class)) {
+            final JobOwnerJobProperty prop = job.getProperty(JobOwnerJobProperty.class);
+            if (prop == null) {
+                continue;
+            }
+            final OwnershipDescription descr = prop.getOwnership();
+            if (descr.equals(target.getJobOwnership(job.getFullName()))) {
+                unchanged++;
+                continue;
+            }
+            try {
+                target.setJobOwnership(job, descr);
+                migratedJobs++;
+            } catch (IOException ex) {
+                onFailure(job.getFullName(), ex);
+            }
+        }
+        
+        final List<Node> nodes = new ArrayList<Node>(jenkins.getNodes());
+        nodes.add(jenkins);
+        for (Node node : nodes) {
+            final OwnerNodeProperty prop = NodeOwnerHelper.getOwnerProperty(node);
+            if (prop == null) {
+                continue;
+            }
+            final OwnershipDescription descr = prop.getOwnership();
+            if (descr.equals(target.getNodeOwnership(node.getNodeName()))) {
+                unchanged++;
+                continue;
+            }
+            try {
+                target.setNodeOwnership(node, descr, false);
+                migratedNodes++;
+            } catch (IOException ex) {
+                onFailure(node.getNodeName(), ex);
+            }
+        }
+        
+        if (target instanceof JournalOwnershipStore) {
+            try {
+                ((JournalOwnershipStore) target).compact();
+            } catch (IOException ex) {
+                onFailure("snapshot", ex);
+            }
+        }
+        LOGGER.log(Level.INFO, "Ownership has been migrated to the {0} store: "
+                + "{1} jobs, {2} nodes, {3} unchanged, {4} failures", 
+                new Object[] {target.getId(), migratedJobs, migratedNodes, unchanged, failures.size()});
+        return this;
+    }
+    
+    private void onFailure(@Nonnull String itemName, @Nonnull IOException ex) {
+        LOGGER.log(Level.WARNING, "Cannot migrate the ownership of " + itemName, ex);
+        failures.add(itemName);
+    }
+
+    public int getMigratedJobs() {
+        return migratedJobs;
+    }
+
+    public int getMigratedNodes() {
+        return migratedNodes;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    @Nonnull
+    public List<String> getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.store;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerJobProperty;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.NodeOwnerHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.nodes.OwnerNodeProperty;
+import hudson.model.Job;
+import hudson.model.Node;
+import java.io.IOException;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.ownership.model.events.OwnershipChangeDispatcher;
+import org.jenkinsci.plugins.ownership.model.persistence.OwnershipPersistenceQueue;
+
+/**
+ * Default store, which keeps ownership in {@link JobOwnerJobProperty} 
+ * and {@link OwnerNodeProperty}.
+ * The store is not an extension, it is always available.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+public class PropertyOwnershipStore extends OwnershipStore {
+    
+    public static final String ID = "property";
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public boolean isExternal() {
+        return false;
+    }
+
+    @Override
+    public OwnershipDescription getJobOwnership(String fullName) {
+        return null;
+    }
+
+    @Override
+    public void setJobOwnership(@Nonnull Job<?, ?> job, 
+            @CheckForNull OwnershipDescription descr) throws IOException {
+        JobOwnerJobProperty prop = JobOwnerHelper.getOwnerProperty(job);
+        if (prop == null) {
+            prop = new JobOwnerJobProperty(descr, null);
+            job.addProperty(prop);
+        } else {
+            prop.setOwnershipDescription(descr);
+        }
+    }
+
+    @Override
+    public OwnershipDescription getNodeOwnership(String nodeName) {
+        return null;
+    }
+
+    @Override
+    public void setNodeOwnership(@Nonnull Node node, 
+            @CheckForNull OwnershipDescription descr, boolean save) throws IOException {
+        OwnerNodeProperty prop = NodeOwnerHelper.getOwnerProperty(node);
+        final OwnershipDescription oldOwnership = prop != null ? prop.getOwnership() : null;
+        if (prop == null) {
+            prop = new OwnerNodeProperty(node, descr);
+            node.getNodeProperties().add(prop);
+        } else {
+            prop.updateOwnership(descr);
+            if (save) {
+                // Nodes are being stored in the global configuration
+                OwnershipPersistenceQueue.getInstance().schedule(Jenkins.getInstance());
+            }
+        }
+        OwnershipChangeDispatcher.getInstance().nodeChanged(node.getNodeName(), oldOwnership, descr);
+    }
+}
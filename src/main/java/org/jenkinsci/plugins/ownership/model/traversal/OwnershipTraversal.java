@@ -0,0 +1,222 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.traversal;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import com.synopsys.arc.jenkins.plugins.ownership.jobs.JobOwnerHelper;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Job;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.ownership.model.index.OwnershipIndex;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Walks jobs within {@link ItemGroup}s.
+ * Any {@link Job} type is supported, folders of any plugin are being 
+ * traversed recursively. 
+ * Nested groups are being loaded lazily, hence callers may stop the iteration 
+ * once they find the required item.
+ * <p>
+ * Jobs, which are item groups on their own (e.g. matrix projects), 
+ * are being returned without their children.
+ * Only items visible to the current user are being returned.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class OwnershipTraversal {
+    
+    private OwnershipTraversal() {}
+    
+    /**
+     * Checks if the item is a folder, which may contain jobs.
+     * @param item Item to be checked
+     * @return true if the item is an item group, but not a job
+     */
+    public static boolean isFolder(@CheckForNull Item item) {
+        return item instanceof ItemGroup && !(item instanceof Job);
+    }
+    
+    /**
+     * Lazily iterates over all jobs within the group.
+     * @param group Root group
+     * @return Iterable, which walks the group in the depth-first order
+     */
+    @Nonnull
+    public static Iterable<Job<?,?>> jobsWithin(@Nonnull final ItemGroup<?> group) {
+        return new Iterable<Job<?,?>>() {
+            public Iterator<Job<?,?>> iterator() {
+                return new JobIterator(group.getItems());
+            }
+        };
+    }
+    
+    /**
+     * Gets the ownership of the job.
+     * The index is being used when it is ready.
+     * @param job Job
+     * @return Ownership description
+     */
+    @Nonnull
+    public static OwnershipDescription getOwnership(@Nonnull Job<?,?> job) {
+        final OwnershipIndex index = OwnershipIndex.getInstance();
+        if (index.isReady()) {
+            final OwnershipDescription indexed = index.getJobOwnership(job.getFullName());
+            return indexed != null ? indexed : OwnershipDescription.DISABLED_DESCR;
+        }
+        return JobOwnerHelper.Instance.getOwnershipDescription(job);
+    }
+    
+    /**
+     * Checks if the ownership description refers to the user.
+     * @param descr Ownership description
+     * @param userId User ID
+     * @param includeCoowned Check co-owners as well
+     * @return true if the user is an owner
+     */
+    public static boolean isOwnedBy(@Nonnull OwnershipDescription descr, @Nonnull String userId, 
+            boolean includeCoowned) {
+        if (!descr.isOwnershipEnabled()) {
+            return false;
+        }
+        return userId.equals(descr.getPrimaryOwnerId()) || (includeCoowned && descr.isCoOwner(userId));
+    }
+    
+    /**
+     * Checks if the group contains jobs owned by the user.
+     * The traversal stops on the first owned job.
+     * @param group Group to be checked
+     * @param userId User ID
+     * @param includeCoowned Check co-owners as well
+     * @return true if there is at least one owned job
+     */
+    public static boolean hasOwnedJobs(@Nonnull ItemGroup<?> group, @Nonnull String userId, 
+            boolean includeCoowned) {
+        for (Job<?,?> job : jobsWithin(group)) {
+            if (isOwnedBy(getOwnership(job), userId, includeCoowned)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Gets the number of jobs with enabled ownership within the group.
+     * Only jobs visible to the current user are being counted.
+     * The index provides precomputed counters, but they do not take permissions 
+     * into account, hence they are being used for administrators only.
+     * Other users get the group traversed.
+     * @param group Group
+     * @return Number of owned jobs
+     */
+    public static int countOwnedJobs(@Nonnull ItemGroup<?> group) {
+        final OwnershipIndex index = OwnershipIndex.getInstance();
+        if (index.isReady() && group instanceof Item 
+                && Jenkins.getInstance().hasPermission(Jenkins.ADMINISTER)) {
+            return index.getOwnedJobsCountWithin(((Item) group).getFullName());
+        }
+        
+        int count = 0;
+        for (Job<?,?> job : jobsWithin(group)) {
+            if (getOwnership(job).isOwnershipEnabled()) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Gets full names of all folders, which contain the specified items.
+     * @param itemNames Full names of items
+     * @return Full names of folders on all levels
+     */
+    @Nonnull
+    public static Set<String> getParentFolders(@Nonnull Collection<String> itemNames) {
+        final Set<String> res = new HashSet<String>();
+        for (String itemName : itemNames) {
+            for (int i = itemName.lastIndexOf('/'); i > 0; i = itemName.lastIndexOf('/', i - 1)) {
+                if (!res.add(itemName.substring(0, i))) {
+                    break; // Upper levels have been already added
+                }
+            }
+        }
+        return res;
+    }
+    
+    /**
+     * Depth-first iterator over jobs.
+     * Children of a folder are being requested only when the iterator reaches it.
+     */
+    private static final class JobIterator implements Iterator<Job<?,?>> {
+        
+        private final Deque<Iterator<? extends Item>> stack = new ArrayDeque<Iterator<? extends Item>>();
+        @CheckForNull
+        private Job<?,?> next;
+
+        JobIterator(@Nonnull Collection<? extends Item> rootItems) {
+            stack.push(rootItems.iterator());
+        }
+        
+        public boolean hasNext() {
+            while (next == null && !stack.isEmpty()) {
+                final Iterator<? extends Item> current = stack.peek();
+                if (!current.hasNext()) {
+                    stack.pop();
+                    continue;
+                }
+                final Item item = current.next();
+                if (item instanceof Job) {
+                    next = (Job<?,?>) item;
+                } else if (item instanceof ItemGroup) {
+                    stack.push(((ItemGroup<?>) item).getItems().iterator());
+                }
+            }
+            return next != null;
+        }
+
+        public Job<?,?> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Job<?,?> res = next;
+            next = null;
+            return res;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("Not supported");
+        }
+    }
+}
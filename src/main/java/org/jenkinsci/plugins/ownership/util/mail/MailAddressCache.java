@@ -0,0 +1,314 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.util.mail;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipPlugin;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Saveable;
+import hudson.model.User;
+import hudson.model.listeners.SaveableListener;
+import hudson.security.ACL;
+import hudson.util.DaemonThreadFactory;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
+import org.jenkinsci.plugins.ownership.util.users.UserCache;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Caches e-mails resolved via {@link OwnershipPlugin#resolveEmail(hudson.model.User)}.
+ * {@link hudson.tasks.MailAddressResolver}s may be really slow (e.g. LDAP lookups), 
+ * but e-mails are being resolved for each owner and co-owner on page rendering, 
+ * mail link generation and environment injection.
+ * <p>
+ * Outdated entries are being returned to callers, and the cache refreshes them 
+ * in the background on a bounded executor. 
+ * Only the first resolution of the user blocks the caller.
+ * Missing e-mails are being cached with a shorter timeout.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class MailAddressCache {
+    
+    private static final Logger LOGGER = Logger.getLogger(MailAddressCache.class.getName());
+    
+    /**
+     * Lifetime of resolved e-mails in milliseconds.
+     */
+    private static final long EXPIRATION_MS = TimeUnit.SECONDS.toMillis(Integer.getInteger(
+            MailAddressCache.class.getName() + ".expirationSec", 600));
+    
+    /**
+     * Lifetime of failed resolutions in milliseconds.
+     */
+    private static final long NEGATIVE_EXPIRATION_MS = TimeUnit.SECONDS.toMillis(Integer.getInteger(
+            MailAddressCache.class.getName() + ".negativeExpirationSec", 60));
+    
+    /**
+     * Maximum number of threads, which refresh e-mails.
+     */
+    private static final int REFRESH_THREADS = Integer.getInteger(
+            MailAddressCache.class.getName() + ".refreshThreads", 2);
+    
+    /**
+     * Maximum number of pending refresh requests. 
+     * Other requests will be discarded, entries will be refreshed on next accesses.
+     */
+    private static final int REFRESH_QUEUE_SIZE = Integer.getInteger(
+            MailAddressCache.class.getName() + ".refreshQueueSize", 1000);
+    
+    private static final MailAddressCache INSTANCE = new MailAddressCache();
+    
+    private final Map<String, Entry> emails = new ConcurrentHashMap<String, Entry>();
+    private final ExecutorService refreshExecutor;
+    /**
+     * Warm-ups may take minutes, hence they do not occupy refresh threads.
+     * At most one warm-up may be pending in addition to the running one.
+     */
+    private final ExecutorService warmUpExecutor;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    private MailAddressCache() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(REFRESH_THREADS, REFRESH_THREADS, 
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(REFRESH_QUEUE_SIZE),
+                new NamedThreadFactory("Ownership e-mail resolver"), new ThreadPoolExecutor.DiscardPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        this.refreshExecutor = executor;
+        
+        ThreadPoolExecutor warmUp = new ThreadPoolExecutor(1, 1, 
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(1),
+                new NamedThreadFactory("Ownership e-mail warm-up"));
+        warmUp.allowCoreThreadTimeOut(true);
+        this.warmUpExecutor = warmUp;
+    }
+    
+    public static @Nonnull MailAddressCache getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Gets e-mail of the user.
+     * @param user User
+     * @return E-mail or null if it cannot be resolved
+     */
+    @CheckForNull
+    public String get(@Nonnull User user) {
+        final String userId = user.getId();
+        final Entry entry = emails.get(userId);
+        if (entry == null) { // Cold miss, there is no value to be returned
+            misses.incrementAndGet();
+            return resolve(user).email;
+        }
+        
+        hits.incrementAndGet();
+        if (entry.isExpired()) {
+            scheduleRefresh(user, entry);
+        }
+        return entry.email;
+    }
+    
+    /**
+     * Gets e-mail of the user.
+     * @param userId User ID
+     * @return E-mail or null if the user does not exist or the e-mail cannot be resolved
+     */
+    @CheckForNull
+    public String get(@Nonnull String userId) {
+        final User user = UserCache.getInstance().get(userId);
+        return (user != null && user != User.getUnknown()) ? get(user) : null;
+    }
+    
+    @Nonnull
+    private Entry resolve(@Nonnull User user) {
+        String email = null;
+        try {
+            email = OwnershipPlugin.getInstance().resolveEmail(user);
+        } catch (RuntimeException ex) { // Resolvers are external code
+            LOGGER.log(Level.WARNING, "Cannot resolve e-mail for user " + user.getId(), ex);
+        }
+        final Entry entry = new Entry(email);
+        emails.put(user.getId(), entry);
+        return entry;
+    }
+    
+    private void scheduleRefresh(@Nonnull final User user, @Nonnull Entry entry) {
+        if (!entry.refreshScheduled.compareAndSet(false, true)) {
+            return; // Someone has already requested it
+        }
+        try {
+            refreshExecutor.submit(new Runnable() {
+                public void run() {
+                    refreshes.incrementAndGet();
+                    final SecurityContext orig = ACL.impersonate(ACL.SYSTEM);
+                    try {
+                        resolve(user);
+                    } finally {
+                        SecurityContextHolder.setContext(orig);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            entry.refreshScheduled.set(false);
+        }
+    }
+    
+    /**
+     * Resolves e-mails of the specified users in the background.
+     * Users, which have been already cached, will be skipped.
+     * The warm-up runs in a dedicated thread, so it does not delay refreshes.
+     * @param userIds IDs of users
+     */
+    public void warmUp(@Nonnull final Collection<String> userIds) {
+        try {
+            warmUpExecutor.execute(new Runnable() {
+                public void run() {
+                    final long startTime = System.currentTimeMillis();
+                    int resolved = 0;
+                    final SecurityContext orig = ACL.impersonate(ACL.SYSTEM);
+                    try {
+                        for (String userId : userIds) {
+                            if (emails.containsKey(userId)) {
+                                continue;
+                            }
+                            final User user = UserCache.getInstance().get(userId);
+                            if (user != null) {
+                                resolve(user);
+                                resolved++;
+                            }
+                        }
+                    } finally {
+                        SecurityContextHolder.setContext(orig);
+                    }
+                    LOGGER.log(Level.FINE, "Resolved e-mails of {0} owners in {1} ms", 
+                            new Object[] {resolved, System.currentTimeMillis() - startTime});
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            LOGGER.log(Level.INFO, "Skipping the e-mail warm-up of {0} owners, another warm-up is pending", 
+                    userIds.size());
+        }
+    }
+    
+    public void invalidate(@Nonnull String userId) {
+        emails.remove(userId);
+    }
+    
+    public void invalidateAll() {
+        emails.clear();
+    }
+    
+    public int size() {
+        return emails.size();
+    }
+    
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+    
+    public long getRefreshes() {
+        return refreshes.get();
+    }
+    
+    /**
+     * Gets hit rate of the cache.
+     * @return Hit rate in the [0;1] range
+     */
+    public double getHitRate() {
+        final long h = hits.get();
+        final long total = h + misses.get();
+        return total != 0 ? (double)h / total : 0;
+    }
+    
+    private static final class Entry {
+        @CheckForNull
+        private final String email;
+        private final long timestamp;
+        private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+        Entry(@CheckForNull String email) {
+            this.email = email;
+            this.timestamp = System.currentTimeMillis();
+        }
+        
+        boolean isExpired() {
+            return System.currentTimeMillis() - timestamp > 
+                    (email != null ? EXPIRATION_MS : NEGATIVE_EXPIRATION_MS);
+        }
+    }
+    
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final ThreadFactory delegate = new DaemonThreadFactory();
+        private final AtomicInteger counter = new AtomicInteger();
+        private final String name;
+
+        NamedThreadFactory(@Nonnull String name) {
+            this.name = name;
+        }
+        
+        public Thread newThread(Runnable r) {
+            Thread t = delegate.newThread(r);
+            t.setName(name + " #" + counter.incrementAndGet());
+            return t;
+        }
+    }
+    
+    /**
+     * Evicts e-mails of modified users.
+     * Users may change e-mails in their configurations.
+     */
+    @Extension
+    public static class UserChangeListener extends SaveableListener {
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof User) {
+                INSTANCE.invalidate(((User) o).getId());
+            }
+        }
+    }
+}
@@ -31,13 +31,18 @@ import com.synopsys.arc.jenkins.plugins.ownership.util.UserStringFormatter;
 import hudson.Util;
 import hudson.model.User;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import jenkins.model.Jenkins;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 
 /**
  *
@@ -66,8 +71,68 @@ public class OwnershipMailHelper {
         return getMailToURL(item, helper, Mode.ContactAdmins);
     }
     
+    /**
+     * Generates a mailto URL for contacting owners with already resolved e-mails.
+     * Callers, which have resolved e-mails of owners (e.g. for rendering), 
+     * may use this method in order to avoid repeated resolutions.
+     * @param <TObjectType> Item type
+     * @param item Item with ownership description's
+     * @param helper Variables resolution helper
+     * @param descr Ownership description of the item
+     * @param ownerEmail E-mail of the primary owner
+     * @param coOwnerEmails E-mails of co-owners, which have been resolved
+     * @return MailTo URL or null if it is not available
+     * @since 0.6
+     */
+    @Restricted(NoExternalUse.class)
+    public static <TObjectType> String getContactOwnersMailToURL (TObjectType item, 
+            IOwnershipHelper<TObjectType> helper, @Nonnull OwnershipDescription descr, 
+            @CheckForNull String ownerEmail, @Nonnull Collection<String> coOwnerEmails) {
+        return getMailToURL(item, helper, descr, ownerEmail, coOwnerEmails, Mode.ContactOwners);
+    }
+    
+    /**
+     * Generates a mailto URL for contacting admins with already resolved e-mails.
+     * @param <TObjectType> Item type
+     * @param item Item with ownership description's
+     * @param helper Variables resolution helper
+     * @param descr Ownership description of the item
+     * @param ownerEmail E-mail of the primary owner
+     * @param coOwnerEmails E-mails of co-owners, which have been resolved
+     * @return MailTo URL or null if it is not available
+     * @since 0.6
+     */
+    @Restricted(NoExternalUse.class)
+    public static <TObjectType> String getContactAdminsMailToURL (TObjectType item, 
+            IOwnershipHelper<TObjectType> helper, @Nonnull OwnershipDescription descr, 
+            @CheckForNull String ownerEmail, @Nonnull Collection<String> coOwnerEmails) {
+        return getMailToURL(item, helper, descr, ownerEmail, coOwnerEmails, Mode.ContactAdmins);
+    }
+    
     private static <TObjectType> String getMailToURL (TObjectType item, 
             IOwnershipHelper<TObjectType> helper, Mode mode) {
+        final OwnershipDescription ownershipDescription = helper.getOwnershipDescription(item);
+        if (!ownershipDescription.isOwnershipEnabled()) {
+            return null;
+        }
+        
+        final String ownerEmail = ownershipDescription.hasPrimaryOwner() 
+                ? UserStringFormatter.formatEmail(ownershipDescription.getPrimaryOwnerId())
+                : null;
+        final Set<String> coOwners = ownershipDescription.getCoownersIds();
+        final List<String> coOwnerEmails = new ArrayList<String>(coOwners.size());
+        for (String coOwnerId : coOwners) {
+            String email = UserStringFormatter.formatEmail(coOwnerId);
+            if (email != null) {
+                coOwnerEmails.add(email);
+            }
+        }
+        return getMailToURL(item, helper, ownershipDescription, ownerEmail, coOwnerEmails, mode);
+    }
+    
+    private static <TObjectType> String getMailToURL (TObjectType item, 
+            IOwnershipHelper<TObjectType> helper, @Nonnull OwnershipDescription ownershipDescription,
+            @CheckForNull String ownerEmail, @Nonnull Collection<String> coOwnerEmails, Mode mode) {
     
         final Jenkins instance = Jenkins.getInstance();
         if (instance == null) {
@@ -82,7 +147,6 @@ public class OwnershipMailHelper {
         }
         final MailOptions mailOptions = plugin.getConfiguration().getMailOptions();
         
-        OwnershipDescription ownershipDescription = helper.getOwnershipDescription(item);
         if (!ownershipDescription.isOwnershipEnabled()) {
             return null;
         }
@@ -93,29 +157,18 @@ public class OwnershipMailHelper {
         final Map<String, String> envVars = getSubstitutionVars(instance,item,helper);
         
         // to - job owner
-        if (ownershipDescription.hasPrimaryOwner()) {
-            String email = UserStringFormatter.formatEmail(ownershipDescription.getPrimaryOwnerId());
-            if (email != null) {
-                switch (mode) {
-                   case ContactAdmins:
-                       cc.add(email);
-                       break;
-                   default:
-                       to.add(email);
-                }
+        if (ownerEmail != null) {
+            switch (mode) {
+               case ContactAdmins:
+                   cc.add(ownerEmail);
+                   break;
+               default:
+                   to.add(ownerEmail);
             }
         }
 
         // cc - job co-owners
-        final Set<String> coOwners = ownershipDescription.getCoownersIds();
-        if (!coOwners.isEmpty()) {
-            for (String coOwnerId : coOwners) {
-                String email = UserStringFormatter.formatEmail(coOwnerId);
-                if (email != null) {
-                    cc.add(email);
-                }
-            }
-        }
+        cc.addAll(coOwnerEmails);
 
         // Prepare subject and body using formatters
         final String body, subject;       
@@ -0,0 +1,171 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.util.ui;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import com.synopsys.arc.jenkins.plugins.ownership.util.UserStringFormatter;
+import hudson.Util;
+import hudson.model.Job;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.jenkinsci.plugins.ownership.model.traversal.OwnershipTraversal;
+import org.jenkinsci.plugins.ownership.util.users.UserCache;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.Stapler;
+import org.kohsuke.stapler.StaplerRequest;
+
+/**
+ * Provides precomputed data for ownership columns of list views.
+ * On the first request of a row, data of all rows of the view is being 
+ * calculated in a single pass. Each owner gets resolved once per pass.
+ * Rows are being cached within the current request.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class JobOwnerColumnDataProvider {
+    
+    private static final String REQUEST_ATTRIBUTE = JobOwnerColumnDataProvider.class.getName();
+    
+    private JobOwnerColumnDataProvider() {}
+    
+    /**
+     * Gets data of the row.
+     * @param rows All rows of the view. If null, only the requested row will be calculated
+     * @param job Job of the row
+     * @return Row data
+     */
+    @Nonnull
+    public static Row getRow(@CheckForNull Collection<?> rows, @Nonnull Job<?,?> job) {
+        final Map<Job<?,?>, Row> cache = getRequestCache();
+        final Row cached = cache.get(job);
+        if (cached != null) {
+            return cached;
+        }
+        
+        final Map<String, Boolean> existingUsers = new HashMap<String, Boolean>();
+        if (rows != null) {
+            for (Object row : rows) {
+                if (row instanceof Job && !cache.containsKey((Job<?,?>) row)) {
+                    final Job<?,?> rowJob = (Job<?,?>) row;
+                    cache.put(rowJob, calculate(rowJob, existingUsers));
+                }
+            }
+        }
+        
+        Row res = cache.get(job);
+        if (res == null) { // The job is not a part of rows
+            res = calculate(job, existingUsers);
+            cache.put(job, res);
+        }
+        return res;
+    }
+    
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private static Map<Job<?,?>, Row> getRequestCache() {
+        final StaplerRequest req = Stapler.getCurrentRequest();
+        if (req == null) {
+            return new IdentityHashMap<Job<?,?>, Row>();
+        }
+        
+        Map<Job<?,?>, Row> cache = (Map<Job<?,?>, Row>) req.getAttribute(REQUEST_ATTRIBUTE);
+        if (cache == null) {
+            cache = new IdentityHashMap<Job<?,?>, Row>();
+            req.setAttribute(REQUEST_ATTRIBUTE, cache);
+        }
+        return cache;
+    }
+    
+    @Nonnull
+    private static Row calculate(@Nonnull Job<?,?> job, @Nonnull Map<String, Boolean> existingUsers) {
+        final OwnershipDescription descr = OwnershipTraversal.getOwnership(job);
+        if (!descr.isOwnershipEnabled()) {
+            return Row.DISABLED;
+        }
+        
+        final String ownerId = descr.getPrimaryOwnerId();
+        Boolean exists = existingUsers.get(ownerId);
+        if (exists == null) {
+            exists = UserCache.getInstance().exists(ownerId);
+            existingUsers.put(ownerId, exists);
+        }
+        return new Row(UserStringFormatter.formatShort(ownerId), exists, descr.getCoownersIds().size());
+    }
+    
+    /**
+     * Precomputed data of a single row.
+     */
+    public static final class Row {
+        
+        static final Row DISABLED = new Row(UserStringFormatter.UNKNOWN_USER_STRING, false, 0);
+        
+        @Nonnull
+        private final String ownerId;
+        private final boolean ownerExists;
+        private final int coOwnersCount;
+
+        Row(@Nonnull String ownerId, boolean ownerExists, int coOwnersCount) {
+            this.ownerId = ownerId;
+            this.ownerExists = ownerExists;
+            this.coOwnersCount = coOwnersCount;
+        }
+
+        @Nonnull
+        public String getOwnerId() {
+            return ownerId;
+        }
+
+        public boolean isOwnerExists() {
+            return ownerExists;
+        }
+        
+        /**
+         * Gets the string to be displayed in the column.
+         * @return Owner ID or {@link UserStringFormatter#UNKNOWN_USER_STRING}
+         */
+        @Nonnull
+        public String getDisplayString() {
+            return ownerId;
+        }
+        
+        /**
+         * Gets URL of the owner's page.
+         * @return URL relative to the root URL or null if the owner does not exist
+         */
+        @CheckForNull
+        public String getUrl() {
+            return ownerExists ? "user/" + Util.rawEncode(ownerId) + "/" : null;
+        }
+
+        public int getCoOwnersCount() {
+            return coOwnersCount;
+        }
+    }
+}
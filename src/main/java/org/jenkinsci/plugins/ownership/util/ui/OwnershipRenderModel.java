@@ -0,0 +1,349 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.util.ui;
+
+import com.synopsys.arc.jenkins.plugins.ownership.IOwnershipHelper;
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import com.synopsys.arc.jenkins.plugins.ownership.util.HTMLFormatter;
+import com.synopsys.arc.jenkins.plugins.ownership.util.UserStringFormatter;
+import com.synopsys.arc.jenkins.plugins.ownership.util.ui.OwnershipLayoutFormatter;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Saveable;
+import hudson.model.User;
+import hudson.model.listeners.SaveableListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.ownership.util.mail.OwnershipMailHelper;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+import org.kohsuke.stapler.Stapler;
+import org.kohsuke.stapler.StaplerRequest;
+
+/**
+ * Memoizes data of the ownership floating box for the current request.
+ * Each owner and co-owner gets resolved once, and resolved e-mails are being
+ * reused by the contact links.
+ * <p>
+ * Fragments of {@link OwnershipLayoutFormatter.DefaultJobFormatter} depend on
+ * the ownership description only, hence they are being shared between requests.
+ * Descriptions are interned, so items with same owners share a single entry.
+ * Custom formatters may render items differently, so they are being 
+ * memoized within the request only.
+ * @param <TObjectType> Type of the item
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class OwnershipRenderModel<TObjectType> {
+    
+    private static final String REQUEST_ATTRIBUTE = OwnershipRenderModel.class.getName();
+    
+    /**
+     * Maximum number of cached fragments.
+     */
+    private static final int MAX_FRAGMENTS = Integer.getInteger(
+            OwnershipRenderModel.class.getName() + ".maxFragments", 1000);
+    
+    /**
+     * Lifetime of cached fragments in milliseconds.
+     * User display names and e-mails may change without notifications.
+     */
+    private static final long FRAGMENT_EXPIRATION_MS = TimeUnit.SECONDS.toMillis(Integer.getInteger(
+            OwnershipRenderModel.class.getName() + ".fragmentExpirationSec", 30));
+    
+    private static final Map<OwnershipDescription, Fragment> FRAGMENTS = 
+            new WeakHashMap<OwnershipDescription, Fragment>();
+    
+    private static final AtomicLong GENERATION = new AtomicLong();
+    
+    @Nonnull
+    private final TObjectType item;
+    @Nonnull
+    private final IOwnershipHelper<TObjectType> helper;
+    @Nonnull
+    private final OwnershipLayoutFormatter<TObjectType> formatter;
+    @Nonnull
+    private final OwnershipDescription description;
+    @Nonnull
+    private final Fragment fragment;
+    
+    private boolean linksResolved;
+    @CheckForNull
+    private String contactOwnersLink;
+    @CheckForNull
+    private String contactAdminsLink;
+
+    private OwnershipRenderModel(@Nonnull TObjectType item, @Nonnull IOwnershipHelper<TObjectType> helper,
+            @Nonnull OwnershipLayoutFormatter<TObjectType> formatter) {
+        this.item = item;
+        this.helper = helper;
+        this.formatter = formatter;
+        this.description = helper.getOwnershipDescription(item);
+        this.fragment = isDefaultFormatter(formatter) 
+                ? getDefaultFragment(description) 
+                : renderCustom(item, description, formatter);
+    }
+    
+    /**
+     * Gets the render model of the item for the current request.
+     * @param <TObjectType> Type of the item
+     * @param item Item to be rendered
+     * @param helper Helper of the item
+     * @param formatter Layout formatter
+     * @return Memoized model. If there is no current request, a new model will be created.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public static <TObjectType> OwnershipRenderModel<TObjectType> of(@Nonnull TObjectType item, 
+            @Nonnull IOwnershipHelper<TObjectType> helper, 
+            @Nonnull OwnershipLayoutFormatter<TObjectType> formatter) {
+        final StaplerRequest req = Stapler.getCurrentRequest();
+        if (req == null) {
+            return new OwnershipRenderModel<TObjectType>(item, helper, formatter);
+        }
+        
+        Map<Object, OwnershipRenderModel<?>> models = 
+                (Map<Object, OwnershipRenderModel<?>>) req.getAttribute(REQUEST_ATTRIBUTE);
+        if (models == null) {
+            models = new IdentityHashMap<Object, OwnershipRenderModel<?>>();
+            req.setAttribute(REQUEST_ATTRIBUTE, models);
+        }
+        
+        final OwnershipRenderModel<?> existing = models.get(item);
+        if (existing != null && existing.helper == helper 
+                && existing.formatter.getClass() == formatter.getClass()) {
+            return (OwnershipRenderModel<TObjectType>) existing;
+        }
+        final OwnershipRenderModel<TObjectType> model = new OwnershipRenderModel<TObjectType>(item, helper, formatter);
+        models.put(item, model);
+        return model;
+    }
+    
+    /**
+     * Drops all shared fragments.
+     * Should be invoked when the rendering of users changes globally, 
+     * e.g. on e-mail resolver changes.
+     */
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+        synchronized (FRAGMENTS) {
+            FRAGMENTS.clear();
+        }
+    }
+    
+    @Nonnull
+    public OwnershipDescription getDescription() {
+        return description;
+    }
+    
+    /**
+     * Gets HTML of the primary owner.
+     * @return HTML of the owner
+     */
+    @Nonnull
+    public String getOwnerHTML() {
+        return fragment.ownerHTML;
+    }
+    
+    /**
+     * Gets HTML of co-owners.
+     * @return List of formatted co-owners. May be empty
+     */
+    @Nonnull
+    public List<String> getCoOwnersHTML() {
+        return fragment.coOwnersHTML;
+    }
+    
+    @CheckForNull
+    public String getContactOwnersLink() {
+        resolveLinks();
+        return contactOwnersLink;
+    }
+    
+    @CheckForNull
+    public String getContactAdminsLink() {
+        resolveLinks();
+        return contactAdminsLink;
+    }
+    
+    private void resolveLinks() {
+        if (linksResolved) {
+            return;
+        }
+        if (isDefaultFormatter(formatter)) {
+            contactOwnersLink = OwnershipMailHelper.getContactOwnersMailToURL(
+                    item, helper, description, fragment.ownerEmail, fragment.coOwnerEmails);
+            contactAdminsLink = OwnershipMailHelper.getContactAdminsMailToURL(
+                    item, helper, description, fragment.ownerEmail, fragment.coOwnerEmails);
+        } else {
+            contactOwnersLink = formatter.formatContactOwnersLink(item, helper);
+            contactAdminsLink = formatter.formatContactAdminsLink(item, helper);
+        }
+        linksResolved = true;
+    }
+    
+    private static boolean isDefaultFormatter(@Nonnull OwnershipLayoutFormatter<?> formatter) {
+        // Subclasses may override formatUser()
+        return formatter.getClass() == OwnershipLayoutFormatter.DefaultJobFormatter.class;
+    }
+    
+    @Nonnull
+    private static String getOwnerString(@Nonnull OwnershipDescription descr) {
+        return descr.isOwnershipEnabled() 
+                ? UserStringFormatter.formatShort(descr.getPrimaryOwnerId())
+                : UserStringFormatter.UNKNOWN_USER_STRING;
+    }
+    
+    @Nonnull
+    private static Fragment getDefaultFragment(@Nonnull OwnershipDescription descr) {
+        final String rootUrl = getRootUrl();
+        synchronized (FRAGMENTS) {
+            final Fragment cached = FRAGMENTS.get(descr);
+            if (cached != null && cached.isValid(rootUrl)) {
+                return cached;
+            }
+        }
+        
+        // Rendering may resolve users and e-mails, so it happens outside the lock
+        final long generation = GENERATION.get();
+        final Fragment fragment = renderDefault(descr, rootUrl, generation);
+        synchronized (FRAGMENTS) {
+            if (FRAGMENTS.size() >= MAX_FRAGMENTS) {
+                FRAGMENTS.clear();
+            }
+            FRAGMENTS.put(descr, fragment);
+        }
+        return fragment;
+    }
+    
+    @Nonnull
+    private static Fragment renderDefault(@Nonnull OwnershipDescription descr, 
+            @CheckForNull String rootUrl, long generation) {
+        final String ownerId = getOwnerString(descr);
+        final String ownerEmail = UserStringFormatter.formatEmail(ownerId);
+        final String ownerHTML = formatUser(ownerId, ownerEmail);
+        
+        final Set<String> coOwners = descr.getCoownersIds();
+        final List<String> coOwnersHTML = new ArrayList<String>(coOwners.size());
+        final List<String> coOwnerEmails = new ArrayList<String>(coOwners.size());
+        for (String coOwnerId : coOwners) {
+            final String email = UserStringFormatter.formatEmail(coOwnerId);
+            coOwnersHTML.add(formatUser(coOwnerId, email));
+            if (email != null) {
+                coOwnerEmails.add(email);
+            }
+        }
+        
+        return new Fragment(ownerHTML, coOwnersHTML, 
+                descr.hasPrimaryOwner() ? ownerEmail : null, coOwnerEmails, rootUrl, generation);
+    }
+    
+    @Nonnull
+    private static <TObjectType> Fragment renderCustom(@Nonnull TObjectType item, 
+            @Nonnull OwnershipDescription descr, @Nonnull OwnershipLayoutFormatter<TObjectType> formatter) {
+        final String ownerHTML = formatter.formatOwner(item, getOwnerString(descr));
+        final Set<String> coOwners = descr.getCoownersIds();
+        final List<String> coOwnersHTML = new ArrayList<String>(coOwners.size());
+        for (String coOwnerId : coOwners) {
+            coOwnersHTML.add(formatter.formatOwner(item, coOwnerId));
+        }
+        // E-mails are not being used, custom formatters produce links on their own
+        return new Fragment(ownerHTML, coOwnersHTML, null, Collections.<String>emptyList(), 
+                getRootUrl(), GENERATION.get());
+    }
+    
+    /**
+     * Formats the user in the same way as {@link OwnershipLayoutFormatter.DefaultJobFormatter}.
+     */
+    @Nonnull
+    private static String formatUser(@Nonnull String userId, @CheckForNull String email) {
+        final String userURI = HTMLFormatter.formatUserURI(userId, true);
+        return userURI + (email != null ? " " + HTMLFormatter.formatMailToLink(email) : "");
+    }
+    
+    @CheckForNull
+    private static String getRootUrl() {
+        final Jenkins instance = Jenkins.getInstance();
+        return instance != null ? instance.getRootUrl() : null;
+    }
+    
+    private static final class Fragment {
+        @Nonnull
+        private final String ownerHTML;
+        @Nonnull
+        private final List<String> coOwnersHTML;
+        @CheckForNull
+        private final String ownerEmail;
+        @Nonnull
+        private final List<String> coOwnerEmails;
+        @CheckForNull
+        private final String rootUrl;
+        private final long generation;
+        private final long timestamp;
+
+        Fragment(@Nonnull String ownerHTML, @Nonnull List<String> coOwnersHTML, 
+                @CheckForNull String ownerEmail, @Nonnull List<String> coOwnerEmails, 
+                @CheckForNull String rootUrl, long generation) {
+            this.ownerHTML = ownerHTML;
+            this.coOwnersHTML = Collections.unmodifiableList(coOwnersHTML);
+            this.ownerEmail = ownerEmail;
+            this.coOwnerEmails = Collections.unmodifiableList(coOwnerEmails);
+            this.rootUrl = rootUrl;
+            this.generation = generation;
+            this.timestamp = System.currentTimeMillis();
+        }
+        
+        boolean isValid(@CheckForNull String currentRootUrl) {
+            return generation == GENERATION.get()
+                    && System.currentTimeMillis() - timestamp <= FRAGMENT_EXPIRATION_MS
+                    && (rootUrl == null ? currentRootUrl == null : rootUrl.equals(currentRootUrl));
+        }
+    }
+    
+    /**
+     * Drops fragments on user changes.
+     * Display names and e-mails are a part of fragments.
+     */
+    @Extension
+    public static class UserChangeListener extends SaveableListener {
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof User) {
+                invalidateAll();
+            }
+        }
+    }
+}
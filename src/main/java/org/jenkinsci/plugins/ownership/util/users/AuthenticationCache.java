@@ -0,0 +1,163 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.util.users;
+
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Saveable;
+import hudson.model.User;
+import hudson.model.listeners.SaveableListener;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.acegisecurity.Authentication;
+import org.acegisecurity.userdetails.UsernameNotFoundException;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Caches {@link Authentication}s of users.
+ * {@link User#impersonate()} queries the security realm, which may be 
+ * really slow for external realms (e.g. LDAP).
+ * Users, which cannot be impersonated, are being cached as well.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class AuthenticationCache {
+    
+    /**
+     * Lifetime of entries in milliseconds.
+     */
+    private static final long EXPIRATION_MS = TimeUnit.SECONDS.toMillis(Integer.getInteger(
+            AuthenticationCache.class.getName() + ".expirationSec", 300));
+    
+    /**
+     * Maximum number of cached authentications.
+     */
+    private static final int MAX_SIZE = Integer.getInteger(
+            AuthenticationCache.class.getName() + ".maxSize", 50000);
+    
+    private static final AuthenticationCache INSTANCE = new AuthenticationCache();
+    
+    private final Map<String, Entry> authentications = new ConcurrentHashMap<String, Entry>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    
+    public static @Nonnull AuthenticationCache getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Gets authentication of the user.
+     * @param user User
+     * @return Authentication or null if the user cannot be impersonated 
+     *      (e.g. it does not exist in the security realm)
+     */
+    @CheckForNull
+    public Authentication get(@Nonnull User user) {
+        final String userId = user.getId();
+        final Entry entry = authentications.get(userId);
+        if (entry != null && !entry.isExpired()) {
+            hits.incrementAndGet();
+            return entry.authentication;
+        }
+        
+        misses.incrementAndGet();
+        Authentication auth;
+        try {
+            auth = user.impersonate();
+        } catch (UsernameNotFoundException ex) {
+            auth = null; // Non-existent users like "unknown"
+        }
+        
+        if (authentications.size() >= MAX_SIZE) {
+            authentications.clear();
+        }
+        authentications.put(userId, new Entry(auth));
+        return auth;
+    }
+    
+    public void invalidate(@Nonnull String userId) {
+        authentications.remove(userId);
+    }
+    
+    public void invalidateAll() {
+        authentications.clear();
+    }
+    
+    public int size() {
+        return authentications.size();
+    }
+    
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+    
+    /**
+     * Gets hit rate of the cache.
+     * @return Hit rate in the [0;1] range
+     */
+    public double getHitRate() {
+        final long h = hits.get();
+        final long total = h + misses.get();
+        return total != 0 ? (double)h / total : 0;
+    }
+    
+    private static final class Entry {
+        @CheckForNull
+        private final Authentication authentication;
+        private final long timestamp;
+
+        Entry(@CheckForNull Authentication authentication) {
+            this.authentication = authentication;
+            this.timestamp = System.currentTimeMillis();
+        }
+        
+        boolean isExpired() {
+            return System.currentTimeMillis() - timestamp > EXPIRATION_MS;
+        }
+    }
+    
+    /**
+     * Evicts authentications of modified users.
+     */
+    @Extension
+    public static class UserChangeListener extends SaveableListener {
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof User) {
+                INSTANCE.invalidate(((User) o).getId());
+            }
+        }
+    }
+}
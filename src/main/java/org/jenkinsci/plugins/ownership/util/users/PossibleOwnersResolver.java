@@ -0,0 +1,222 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.util.users;
+
+import com.synopsys.arc.jenkins.plugins.ownership.util.UserCollectionFilter;
+import hudson.model.User;
+import hudson.security.ACL;
+import hudson.security.AccessControlled;
+import hudson.security.AuthorizationStrategy;
+import hudson.security.Permission;
+import hudson.util.DaemonThreadFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import jenkins.model.Jenkins;
+import org.acegisecurity.Authentication;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
+import org.acegisecurity.context.SecurityContextImpl;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Computes users, which have the specified permission for the item.
+ * <p>
+ * The resolver checks the permission against the {@link ACL} of the item 
+ * using cached {@link Authentication}s (see {@link AuthenticationCache}), 
+ * so users are not being impersonated via the security realm on each check.
+ * Some authorization strategies (e.g. ownership-based role macros without SIDs)
+ * refer the current user, hence a single evaluation context is being installed
+ * per batch and only its authentication is being switched between candidates.
+ * Big user lists are being evaluated in parallel on a bounded pool.
+ * If the pool is saturated or the parallel evaluation fails, 
+ * users are being checked in the calling thread.
+ * If the authorization strategy grants all permissions to everybody, 
+ * no checks are being performed at all.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class PossibleOwnersResolver {
+    
+    private static final Logger LOGGER = Logger.getLogger(PossibleOwnersResolver.class.getName());
+    
+    /**
+     * Maximum number of threads, which evaluate users.
+     */
+    private static final int THREADS = Integer.getInteger(
+            PossibleOwnersResolver.class.getName() + ".threads", 4);
+    
+    /**
+     * Number of users to be evaluated by a single task.
+     * Smaller lists are being evaluated in the calling thread.
+     */
+    private static final int CHUNK_SIZE = Integer.getInteger(
+            PossibleOwnersResolver.class.getName() + ".chunkSize", 250);
+    
+    /**
+     * Maximum number of chunks waiting for the evaluation.
+     */
+    private static final int QUEUE_SIZE = Integer.getInteger(
+            PossibleOwnersResolver.class.getName() + ".queueSize", 100);
+    
+    private static final PossibleOwnersResolver INSTANCE = new PossibleOwnersResolver();
+    
+    private final ExecutorService executor;
+
+    private PossibleOwnersResolver() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(THREADS, THREADS, 
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(QUEUE_SIZE), 
+                new ResolverThreadFactory());
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+    
+    public static @Nonnull PossibleOwnersResolver getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Gets users, which have the permission.
+     * @param item Item to be checked
+     * @param permission Permission to be checked
+     * @return Users sorted by full names
+     */
+    @Nonnull
+    public Collection<User> getPossibleOwners(@Nonnull AccessControlled item, @Nonnull final Permission permission) {
+        final List<User> users = UserCollectionFilter.sortUsers(User.getAll());
+        
+        final AuthorizationStrategy strategy = Jenkins.getInstance().getAuthorizationStrategy();
+        if (strategy instanceof AuthorizationStrategy.Unsecured) { // Everybody has all permissions
+            users.remove(User.getUnknown());
+            return users;
+        }
+        
+        final ACL acl = item.getACL();
+        if (users.size() <= CHUNK_SIZE) {
+            return filter(users, acl, permission);
+        }
+        
+        // Evaluate chunks in parallel, the order is being retained
+        final List<Future<List<User>>> futures = new ArrayList<Future<List<User>>>();
+        try {
+            for (int start = 0; start < users.size(); start += CHUNK_SIZE) {
+                final List<User> chunk = users.subList(start, Math.min(start + CHUNK_SIZE, users.size()));
+                futures.add(executor.submit(new Callable<List<User>>() {
+                    public List<User> call() throws Exception {
+                        return filter(chunk, acl, permission);
+                    }
+                }));
+            }
+
+            final List<User> res = new ArrayList<User>();
+            for (Future<List<User>> future : futures) {
+                res.addAll(future.get());
+            }
+            return res;
+        } catch (RejectedExecutionException ex) {
+            LOGGER.log(Level.FINE, "The resolver pool is saturated, checking users in the calling thread");
+        } catch (ExecutionException ex) {
+            LOGGER.log(Level.WARNING, "Cannot check permissions of users in parallel, checking them in the calling thread", ex.getCause());
+        } catch (InterruptedException ex) {
+            // Complete the check anyway, a partial list would be taken as a valid one
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Future<List<User>> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return filter(users, acl, permission);
+    }
+    
+    @Nonnull
+    private static List<User> filter(@Nonnull List<User> users, @Nonnull ACL acl, @Nonnull Permission permission) {
+        final List<User> res = new ArrayList<User>();
+        final SecurityContext evaluationContext = new SecurityContextImpl();
+        final SecurityContext initialContext = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(evaluationContext);
+        try {
+            for (User user : users) {
+                if (user != null && hasPermission(user, acl, permission, evaluationContext)) {
+                    res.add(user);
+                }
+            }
+        } finally {
+            SecurityContextHolder.setContext(initialContext);
+        }
+        return res;
+    }
+    
+    /**
+     * Checks the permission of the user.
+     * @param user User
+     * @param acl ACL of the item
+     * @param permission Permission to be checked
+     * @return true if the user has the permission
+     */
+    public static boolean hasPermission(@Nonnull User user, @Nonnull ACL acl, @Nonnull Permission permission) {
+        return !filter(Collections.singletonList(user), acl, permission).isEmpty();
+    }
+    
+    /**
+     * Checks the permission within the already installed evaluation context.
+     * Role macros without SIDs take the user from the current context,
+     * so the candidate's authentication is being set there.
+     */
+    private static boolean hasPermission(@Nonnull User user, @Nonnull ACL acl, 
+            @Nonnull Permission permission, @Nonnull SecurityContext evaluationContext) {
+        final Authentication auth = AuthenticationCache.getInstance().get(user);
+        if (auth == null) {
+            return false;
+        }
+        evaluationContext.setAuthentication(auth);
+        return acl.hasPermission(auth, permission);
+    }
+    
+    private static final class ResolverThreadFactory implements ThreadFactory {
+        private final ThreadFactory delegate = new DaemonThreadFactory();
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        public Thread newThread(Runnable r) {
+            Thread t = delegate.newThread(r);
+            t.setName("Ownership possible owners resolver #" + counter.incrementAndGet());
+            return t;
+        }
+    }
+}
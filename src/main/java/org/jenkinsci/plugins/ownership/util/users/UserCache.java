@@ -0,0 +1,192 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.util.users;
+
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Saveable;
+import hudson.model.User;
+import hudson.model.listeners.SaveableListener;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Short-living cache of resolved {@link User}s.
+ * Ownership pages and formatters resolve the same users many times per request,
+ * so the cache prevents repeated {@link User#get(java.lang.String, boolean, java.util.Map)} 
+ * lookups.
+ * <p>
+ * Missing users are being cached as well. 
+ * Entries get evicted when users are being saved (e.g. on registration) 
+ * or after a short timeout. The timeout also handles deleted users, 
+ * because there is no listener for such events in Jenkins core.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class UserCache {
+    
+    /**
+     * Maximum number of cached users.
+     */
+    private static final int MAX_SIZE = Integer.getInteger(
+            UserCache.class.getName() + ".maxSize", 10000);
+    
+    /**
+     * Lifetime of entries in milliseconds.
+     */
+    private static final long EXPIRATION_MS = TimeUnit.SECONDS.toMillis(Integer.getInteger(
+            UserCache.class.getName() + ".expirationSec", 30));
+    
+    private static final UserCache INSTANCE = new UserCache();
+    
+    private final Map<String, Entry> users = new ConcurrentHashMap<String, Entry>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    
+    public static @Nonnull UserCache getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Gets an existing user.
+     * The method does not create new users.
+     * @param userId User ID. Full names are also accepted
+     * @return User or null if it does not exist
+     */
+    @CheckForNull
+    public User get(@CheckForNull String userId) {
+        if (userId == null) {
+            return null;
+        }
+        
+        final Entry entry = users.get(userId);
+        if (entry != null && !entry.isExpired()) {
+            hits.incrementAndGet();
+            return entry.user;
+        }
+        
+        misses.incrementAndGet();
+        final User user = User.get(userId, false, null);
+        if (users.size() >= MAX_SIZE) {
+            purge();
+        }
+        users.put(userId, new Entry(user));
+        return user;
+    }
+    
+    /**
+     * Checks if the user exists.
+     * @param userId User ID. Full names are also accepted
+     * @return true if the user exists
+     */
+    public boolean exists(@CheckForNull String userId) {
+        return get(userId) != null;
+    }
+    
+    public void invalidate(@Nonnull String userId) {
+        users.remove(userId);
+    }
+    
+    public void invalidateAll() {
+        users.clear();
+    }
+    
+    /**
+     * Removes expired entries.
+     * If the cache is still full, all entries will be dropped.
+     */
+    private void purge() {
+        final Iterator<Entry> it = users.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().isExpired()) {
+                it.remove();
+            }
+        }
+        if (users.size() >= MAX_SIZE) {
+            users.clear();
+        }
+    }
+    
+    public int size() {
+        return users.size();
+    }
+    
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+    
+    /**
+     * Gets hit rate of the cache.
+     * @return Hit rate in the [0;1] range
+     */
+    public double getHitRate() {
+        final long h = hits.get();
+        final long total = h + misses.get();
+        return total != 0 ? (double)h / total : 0;
+    }
+    
+    private static final class Entry {
+        @CheckForNull
+        private final User user;
+        private final long timestamp;
+
+        Entry(@CheckForNull User user) {
+            this.user = user;
+            this.timestamp = System.currentTimeMillis();
+        }
+        
+        boolean isExpired() {
+            return System.currentTimeMillis() - timestamp > EXPIRATION_MS;
+        }
+    }
+    
+    /**
+     * Evicts users on changes.
+     * The listener also handles registrations of new users, 
+     * which may be cached as missing ones.
+     */
+    @Extension
+    public static class UserChangeListener extends SaveableListener {
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof User) {
+                // Entries may be keyed by full names, hence we cannot evict a single user
+                INSTANCE.invalidateAll();
+            }
+        }
+    }
+}
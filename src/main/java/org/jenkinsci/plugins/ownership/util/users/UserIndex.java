@@ -0,0 +1,300 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.util.users;
+
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Saveable;
+import hudson.model.User;
+import hudson.model.listeners.SaveableListener;
+import hudson.util.DaemonThreadFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Prefix index of users for autocompletion.
+ * The index contains user IDs, full names and separate words of full names.
+ * <p>
+ * The index is being updated on user changes. Jenkins does not notify 
+ * about all new and deleted users, hence the index is being rebuilt 
+ * periodically. Periodic rebuilds happen in background, searches use 
+ * the previous index meanwhile. Modifications during the rebuild are being 
+ * reapplied once it completes. Deleted users are also skipped during the search.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ * @since 0.6
+ */
+@Restricted(NoExternalUse.class)
+public class UserIndex {
+    
+    /**
+     * Interval between full rebuilds of the index in milliseconds.
+     */
+    private static final long REBUILD_INTERVAL_MS = TimeUnit.SECONDS.toMillis(Integer.getInteger(
+            UserIndex.class.getName() + ".rebuildIntervalSec", 300));
+    
+    private static final UserIndex INSTANCE = new UserIndex();
+    
+    /**
+     * Lower-case keys to user IDs. Guarded by {@code this}.
+     */
+    private TreeMap<String, Set<String>> prefixes = new TreeMap<String, Set<String>>();
+    
+    /**
+     * User IDs to the registered keys. Guarded by {@code this}.
+     */
+    private Map<String, List<String>> keysByUser = new HashMap<String, List<String>>();
+    
+    /**
+     * Modifications, which happen during the rebuild.
+     * Null values stand for removals. Guarded by {@code this}.
+     */
+    @CheckForNull
+    private Map<String, User> updatesDuringRebuild;
+    
+    /**
+     * Serializes rebuilds.
+     */
+    private final Object rebuildLock = new Object();
+    
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ExecutorService executor;
+    
+    private volatile long lastRebuild = 0;
+
+    private UserIndex() {
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            private final ThreadFactory delegate = new DaemonThreadFactory();
+            public Thread newThread(Runnable r) {
+                Thread t = delegate.newThread(r);
+                t.setName("Ownership user index builder");
+                return t;
+            }
+        });
+    }
+    
+    public static @Nonnull UserIndex getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Searches users by the prefix of ID, full name or a word of the full name.
+     * @param query Prefix to be searched. The search is case-insensitive
+     * @param limit Maximum number of results
+     * @return IDs of matching users. The ordering is stable, but not defined
+     */
+    @Nonnull
+    public List<String> search(@CheckForNull String query, int limit) {
+        final String prefix = query != null ? toKey(query) : "";
+        if (lastRebuild == 0) {
+            synchronized (rebuildLock) { // There is no previous index
+                if (lastRebuild == 0) {
+                    rebuild();
+                }
+            }
+        } else if (System.currentTimeMillis() - lastRebuild > REBUILD_INTERVAL_MS) {
+            scheduleRebuild();
+        }
+        
+        final Set<String> candidates = new LinkedHashSet<String>();
+        synchronized (this) {
+            for (Map.Entry<String, Set<String>> entry : prefixes.tailMap(prefix).entrySet()) {
+                if (!entry.getKey().startsWith(prefix) || candidates.size() >= limit) {
+                    break;
+                }
+                for (String userId : entry.getValue()) {
+                    candidates.add(userId);
+                    if (candidates.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        
+        // Drop deleted users
+        final List<String> res = new ArrayList<String>(candidates.size());
+        for (String userId : candidates) {
+            if (UserCache.getInstance().exists(userId)) {
+                res.add(userId);
+            } else {
+                remove(userId);
+            }
+        }
+        return res;
+    }
+    
+    /**
+     * Rebuilds the index in background unless the rebuild is already scheduled.
+     */
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            executor.submit(new Runnable() {
+                public void run() {
+                    try {
+                        rebuild();
+                    } finally {
+                        rebuildScheduled.set(false);
+                    }
+                }
+            });
+        }
+    }
+    
+    /**
+     * Rebuilds the index from scratch.
+     * Users are being read without locking the index, so searches 
+     * are not blocked by the rebuild.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                updatesDuringRebuild = new HashMap<String, User>();
+            }
+            
+            final TreeMap<String, Set<String>> newPrefixes = new TreeMap<String, Set<String>>();
+            final Map<String, List<String>> newKeysByUser = new HashMap<String, List<String>>();
+            for (User user : User.getAll()) {
+                if (user != null) {
+                    addKeys(newPrefixes, newKeysByUser, user);
+                }
+            }
+            
+            synchronized (this) {
+                prefixes = newPrefixes;
+                keysByUser = newKeysByUser;
+                final Map<String, User> updates = updatesDuringRebuild;
+                updatesDuringRebuild = null;
+                if (updates != null) {
+                    for (Map.Entry<String, User> entry : updates.entrySet()) {
+                        if (entry.getValue() != null) {
+                            update(entry.getValue());
+                        } else {
+                            remove(entry.getKey());
+                        }
+                    }
+                }
+            }
+            lastRebuild = System.currentTimeMillis();
+        }
+    }
+    
+    /**
+     * Adds the user to the index or updates its keys.
+     * @param user User
+     */
+    public synchronized void update(@Nonnull User user) {
+        final String userId = user.getId();
+        removeKeys(userId);
+        addKeys(prefixes, keysByUser, user);
+        if (updatesDuringRebuild != null) {
+            updatesDuringRebuild.put(userId, user);
+        }
+    }
+    
+    private static void addKeys(@Nonnull TreeMap<String, Set<String>> prefixes, 
+            @Nonnull Map<String, List<String>> keysByUser, @Nonnull User user) {
+        final String userId = user.getId();
+        final Set<String> keys = new TreeSet<String>();
+        keys.add(toKey(userId));
+        final String fullName = toKey(user.getFullName());
+        keys.add(fullName);
+        for (String word : fullName.split("\\s+")) {
+            if (word.length() != 0) {
+                keys.add(word);
+            }
+        }
+        
+        for (String key : keys) {
+            Set<String> users = prefixes.get(key);
+            if (users == null) {
+                users = new TreeSet<String>();
+                prefixes.put(key, users);
+            }
+            users.add(userId);
+        }
+        keysByUser.put(userId, new ArrayList<String>(keys));
+    }
+    
+    public synchronized void remove(@Nonnull String userId) {
+        removeKeys(userId);
+        if (updatesDuringRebuild != null) {
+            updatesDuringRebuild.put(userId, null);
+        }
+    }
+    
+    // Should be invoked under the lock
+    private void removeKeys(@Nonnull String userId) {
+        final List<String> keys = keysByUser.remove(userId);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            final Set<String> users = prefixes.get(key);
+            if (users != null) {
+                users.remove(userId);
+                if (users.isEmpty()) {
+                    prefixes.remove(key);
+                }
+            }
+        }
+    }
+    
+    public synchronized int size() {
+        return keysByUser.size();
+    }
+    
+    @Nonnull
+    private static String toKey(@Nonnull String str) {
+        return str.trim().toLowerCase(Locale.ENGLISH);
+    }
+    
+    /**
+     * Updates the index on user changes.
+     */
+    @Extension
+    public static class UserChangeListener extends SaveableListener {
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof User) {
+                INSTANCE.update((User) o);
+            }
+        }
+    }
+}
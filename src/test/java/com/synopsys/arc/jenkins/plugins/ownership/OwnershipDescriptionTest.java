@@ -0,0 +1,70 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.synopsys.arc.jenkins.plugins.ownership;
+
+import java.util.Arrays;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Tests for {@link OwnershipDescription}.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ */
+public class OwnershipDescriptionTest {
+    
+    public @Test void equalDescriptionsShareInstance() {
+        OwnershipDescription d1 = OwnershipDescription.intern(
+                new OwnershipDescription(true, "owner", Arrays.asList("b", "a")));
+        OwnershipDescription d2 = OwnershipDescription.intern(
+                new OwnershipDescription(true, "owner", Arrays.asList("a", "b", "a")));
+        assertEquals(d1, d2);
+        assertSame(d1, d2);
+        
+        OwnershipDescription d3 = OwnershipDescription.intern(
+                new OwnershipDescription(true, "owner", Arrays.asList("a")));
+        assertFalse(d1.equals(d3));
+    }
+    
+    public @Test void checkCoOwners() {
+        OwnershipDescription d = new OwnershipDescription(true, "owner", Arrays.asList("c", "a", "b"));
+        assertTrue(d.isCoOwner("a"));
+        assertTrue(d.isCoOwner("c"));
+        assertFalse(d.isCoOwner("owner"));
+        assertFalse(d.isCoOwner(null));
+    }
+    
+    public @Test void mutableDescriptionsAreSnapshottedOnIntern() {
+        OwnershipDescription d = new OwnershipDescription(true, "owner", Arrays.asList("a"));
+        OwnershipDescription canonical = OwnershipDescription.intern(d);
+        assertTrue(canonical.isCanonical());
+        assertFalse(d.isCanonical());
+        
+        d.assign(new OwnershipDescription(true, "other", null));
+        d.getCoownersIds().add("b");
+        assertEquals("other", d.getPrimaryOwnerId());
+        assertTrue(d.isCoOwner("b"));
+        assertEquals("owner", canonical.getPrimaryOwnerId());
+        assertFalse(canonical.isCoOwner("b"));
+    }
+}
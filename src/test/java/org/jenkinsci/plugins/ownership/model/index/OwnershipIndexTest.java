@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.index;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Tests for the item index of {@link OwnershipIndex}.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ */
+public class OwnershipIndexTest {
+    
+    public @Test void renameMovesNestedItems() {
+        OwnershipIndex.ItemIndex index = new OwnershipIndex.ItemIndex();
+        index.update("folder/job", owner("a"));
+        index.update("folder/sub/job", owner("a", "b"));
+        index.update("folder2/job", owner("a"));
+        
+        index.rename("folder", "renamed");
+        
+        assertNull(index.getDescription("folder/job"));
+        assertEquals(owner("a"), index.getDescription("renamed/job"));
+        assertEquals(owner("a", "b"), index.getDescription("renamed/sub/job"));
+        assertEquals(set("renamed/job", "renamed/sub/job", "folder2/job"), index.getOwnedItems("a", false));
+        assertEquals(set("renamed/sub/job"), index.getCoOwnedItems("b"));
+        assertEquals(0, index.getCountWithin("folder"));
+        assertEquals(2, index.getCountWithin("renamed"));
+        assertEquals(1, index.getCountWithin("renamed/sub"));
+        assertEquals("Items with the same prefix should not be affected", 1, index.getCountWithin("folder2"));
+    }
+    
+    public @Test void removeChildrenKeepsItemsWithSamePrefix() {
+        OwnershipIndex.ItemIndex index = new OwnershipIndex.ItemIndex();
+        index.update("folder/job", owner("a"));
+        index.update("folder/sub/job", owner("a"));
+        index.update("folder2/job", owner("a"));
+        
+        index.removeChildren("folder");
+        
+        assertEquals(set("folder2/job"), index.getOwnedItems("a", true));
+        assertEquals(0, index.getCountWithin("folder"));
+        assertEquals(0, index.getCountWithin("folder/sub"));
+        assertEquals(1, index.getCountWithin("folder2"));
+        assertEquals(1, index.size());
+    }
+    
+    public @Test void updatesDuringBuildAreReplayed() {
+        OwnershipIndex.ItemIndex index = new OwnershipIndex.ItemIndex();
+        index.update("stale", owner("a"));
+        index.startBuild();
+        
+        // The builder has read the old state of items
+        OwnershipIndex.ItemIndex.Builder builder = new OwnershipIndex.ItemIndex.Builder();
+        builder.add("folder/changed", owner("a"));
+        builder.add("folder/removed", owner("a"));
+        builder.add("unchanged", owner("b"));
+        
+        index.update("folder/changed", owner("c"));
+        index.update("folder/removed", null);
+        index.update("added", owner("a"));
+        index.replace(builder);
+        
+        assertNull("Items missing in the build should be dropped", index.getDescription("stale"));
+        assertEquals(owner("c"), index.getDescription("folder/changed"));
+        assertNull(index.getDescription("folder/removed"));
+        assertEquals(set("added"), index.getOwnedItems("a", true));
+        assertEquals(set("unchanged"), index.getOwnedItems("b", true));
+        assertEquals(1, index.getCountWithin("folder"));
+        
+        // Updates after the build are not being recorded
+        index.update("folder/changed", null);
+        assertEquals(0, index.getCountWithin("folder"));
+    }
+    
+    private static OwnershipDescription owner(String owner, String ... coOwners) {
+        return OwnershipDescription.intern(new OwnershipDescription(true, owner, Arrays.asList(coOwners)));
+    }
+    
+    private static HashSet<String> set(String ... items) {
+        final HashSet<String> res = new HashSet<String>();
+        Collections.addAll(res, items);
+        return res;
+    }
+}
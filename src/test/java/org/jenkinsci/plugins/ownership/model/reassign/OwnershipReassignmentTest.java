@@ -0,0 +1,55 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.reassign;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import java.util.Arrays;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Tests for {@link OwnershipReassignment}.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ */
+public class OwnershipReassignmentTest {
+    
+    public @Test void reassignPrimaryOwner() {
+        OwnershipDescription d = new OwnershipDescription(true, "from", Arrays.asList("a", "to"));
+        OwnershipDescription res = OwnershipReassignment.reassign(d, "from", "to");
+        assertEquals("to", res.getPrimaryOwnerId());
+        assertEquals("Target should not remain a co-owner", 
+                new OwnershipDescription(true, "to", Arrays.asList("a")), res);
+    }
+    
+    public @Test void reassignCoOwner() {
+        OwnershipDescription d = new OwnershipDescription(true, "owner", Arrays.asList("a", "from"));
+        OwnershipDescription res = OwnershipReassignment.reassign(d, "from", "to");
+        assertEquals(new OwnershipDescription(true, "owner", Arrays.asList("a", "to")), res);
+    }
+    
+    public @Test void unrelatedDescriptionIsRetained() {
+        OwnershipDescription d = new OwnershipDescription(true, "owner", Arrays.asList("a"));
+        assertSame(d, OwnershipReassignment.reassign(d, "from", "to"));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 Oleg Nenashev <o.v.nenashev@gmail.com>.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.ownership.model.store;
+
+import com.synopsys.arc.jenkins.plugins.ownership.OwnershipDescription;
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link JournalOwnershipStore}.
+ * @author Oleg Nenashev <o.v.nenashev@gmail.com>
+ */
+public class JournalOwnershipStoreTest {
+    
+    private static final String DIR_PROPERTY = JournalOwnershipStore.class.getName() + ".dir";
+    
+    public @Rule TemporaryFolder tmp = new TemporaryFolder();
+    private File dir;
+    
+    @Before
+    public void setUp() throws Exception {
+        dir = tmp.newFolder("ownership-store");
+        System.setProperty(DIR_PROPERTY, dir.getAbsolutePath());
+    }
+    
+    @After
+    public void tearDown() {
+        System.clearProperty(DIR_PROPERTY);
+    }
+    
+    public @Test void replayJournal() throws Exception {
+        JournalOwnershipStore store = new JournalOwnershipStore();
+        store.setJobOwnership("folder/job", owner("a"));
+        store.setJobOwnership("folder/job", owner("b", "c"));
+        store.setNodeOwnership("node", owner("d"));
+        
+        JournalOwnershipStore loaded = new JournalOwnershipStore();
+        assertEquals(owner("b", "c"), loaded.getJobOwnership("folder/job"));
+        assertEquals(owner("d"), loaded.getNodeOwnership("node"));
+        assertEquals(1, loaded.getJobsCount());
+    }
+    
+    public @Test void compactionKeepsState() throws Exception {
+        JournalOwnershipStore store = new JournalOwnershipStore();
+        store.setJobOwnership("job1", owner("a"));
+        store.setJobOwnership("job2", owner("b"));
+        store.onDeleted("job2");
+        store.setNodeOwnership("node", owner("c"));
+        store.compact();
+        
+        assertEquals(0, new File(dir, JournalOwnershipStore.JOURNAL_FILE).length());
+        store.setJobOwnership("job3", owner("d"));
+        
+        JournalOwnershipStore loaded = new JournalOwnershipStore();
+        assertEquals(owner("a"), loaded.getJobOwnership("job1"));
+        assertNull(loaded.getJobOwnership("job2"));
+        assertEquals(owner("c"), loaded.getNodeOwnership("node"));
+        assertEquals(owner("d"), loaded.getJobOwnership("job3"));
+    }
+    
+    public @Test void renameMovesNestedJobs() throws Exception {
+        JournalOwnershipStore store = new JournalOwnershipStore();
+        store.setJobOwnership("folder/job", owner("a"));
+        store.setJobOwnership("folder/sub/job", owner("b"));
+        store.setJobOwnership("folder2/job", owner("c"));
+        store.onRenamed("folder", "renamed");
+        
+        JournalOwnershipStore loaded = new JournalOwnershipStore();
+        assertNull(loaded.getJobOwnership("folder/job"));
+        assertEquals(owner("a"), loaded.getJobOwnership("renamed/job"));
+        assertEquals(owner("b"), loaded.getJobOwnership("renamed/sub/job"));
+        assertEquals("Jobs with the same prefix should not be affected", 
+                owner("c"), loaded.getJobOwnership("folder2/job"));
+    }
+    
+    public @Test void removeDropsNestedJobs() throws Exception {
+        JournalOwnershipStore store = new JournalOwnershipStore();
+        store.setJobOwnership("folder/job", owner("a"));
+        store.setJobOwnership("folder/sub/job", owner("b"));
+        store.setJobOwnership("folder2/job", owner("c"));
+        store.onDeleted("folder");
+        
+        JournalOwnershipStore loaded = new JournalOwnershipStore();
+        assertNull(loaded.getJobOwnership("folder/job"));
+        assertNull(loaded.getJobOwnership("folder/sub/job"));
+        assertEquals(owner("c"), loaded.getJobOwnership("folder2/job"));
+    }
+    
+    public @Test void removedNodesDoNotGetStaleOwners() throws Exception {
+        JournalOwnershipStore store = new JournalOwnershipStore();
+        store.setNodeOwnership("", owner("admin"));
+        store.setNodeOwnership("old", owner("a"));
+        
+        // "old" has been renamed to "new", the property keeps the ownership
+        Map<String, OwnershipDescription> current = new HashMap<String, OwnershipDescription>();
+        current.put("", null);
+        current.put("new", owner("a"));
+        store.updateNodes(current);
+        
+        JournalOwnershipStore loaded = new JournalOwnershipStore();
+        assertNull(loaded.getNodeOwnership("old"));
+        assertEquals(owner("a"), loaded.getNodeOwnership("new"));
+        assertEquals(owner("admin"), loaded.getNodeOwnership(""));
+    }
+    
+    private static OwnershipDescription owner(String owner, String ... coOwners) {
+        return OwnershipDescription.intern(new OwnershipDescription(true, owner, Arrays.asList(coOwners)));
+    }
+}